@@ -9,6 +9,7 @@ public class CacheCleanupListener {
 	private static final int SECONDS_PER_MINUTE = 60;
 	private static final int MINUTES_PER_HOUR = 60;
 	private static final long TWO_HOUR_TICKS = TICKS_PER_SECOND * SECONDS_PER_MINUTE * MINUTES_PER_HOUR * 2; // 2 hours in ticks
+	private static final long FIVE_MINUTE_TICKS = TICKS_PER_SECOND * SECONDS_PER_MINUTE * 5; // 5 minutes in ticks
 
 	public CacheCleanupListener() {
 		new BukkitRunnable() {
@@ -17,5 +18,12 @@ public class CacheCleanupListener {
 				DataSource.cleanOutdatedCache(false);
 			}
 		}.runTaskTimerAsynchronously(plugin, 0L, TWO_HOUR_TICKS); // Every 2 hours
+
+		new BukkitRunnable() {
+			@Override
+			public void run() {
+				DataSource.saveCache();
+			}
+		}.runTaskTimerAsynchronously(plugin, FIVE_MINUTE_TICKS, FIVE_MINUTE_TICKS); // Every 5 minutes, only writes if the cache changed
 	}
 }
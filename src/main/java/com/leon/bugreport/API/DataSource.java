@@ -1,25 +1,30 @@
 package com.leon.bugreport.API;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
-import com.mojang.authlib.GameProfile;
-import com.mojang.authlib.properties.Property;
+import com.leon.bugreport.BugReport;
+import com.leon.bugreport.BugReportDatabase;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.SkullMeta;
 import org.bukkit.profile.PlayerProfile;
 import org.bukkit.profile.PlayerTextures;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 import java.lang.reflect.Type;
-import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static com.leon.bugreport.BugReportManager.config;
 import static com.leon.bugreport.BugReportManager.plugin;
@@ -30,6 +35,47 @@ public class DataSource {
 	private static long CACHE_EXPIRY_DURATION = 24 * 60 * 60 * 1000; // 24 hours
 	private static final Gson GSON = new Gson();
 
+	/*
+	 * The head cache lives in memory and is only written to playerData.json by saveCache(), which
+	 * runs periodically from CacheCleanupListener and on shutdown. Entries are replaced, never
+	 * mutated, so a save running on another thread always sees consistent entries. Like the skull
+	 * templates it is capped, the least recently used players are dropped first and are looked up
+	 * again if they show up later.
+	 */
+	private static final int MAX_CACHED_PLAYERS = 5000;
+	private static final Map<String, CacheEntry> cache = Collections.synchronizedMap(new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+			return size() > MAX_CACHED_PLAYERS;
+		}
+	});
+	private static final AtomicBoolean cacheDirty = new AtomicBoolean();
+	private static volatile boolean cacheLoaded;
+	private static volatile long cacheExpiry = -1;
+	private static final Map<String, CompletableFuture<String>> pendingLookups = new ConcurrentHashMap<>();
+
+	private static volatile MojangApi mojangApi = new MojangApi();
+
+	private static final int MAX_SKULL_TEMPLATES = 512;
+	private static final Map<String, ItemStack> skullTemplates = Collections.synchronizedMap(new LinkedHashMap<String, ItemStack>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ItemStack> eldest) {
+			return size() > MAX_SKULL_TEMPLATES;
+		}
+	});
+
+	public static @NotNull MojangApi getMojangApi() {
+		return mojangApi;
+	}
+
+	/**
+	 * Replaces the client used for head and UUID lookups, for example to send them to another
+	 * server or to use a guard with other limits.
+	 */
+	public static void setMojangApi(@NotNull MojangApi api) {
+		mojangApi = api;
+	}
+
 	public static long convertTimeToMillis(@NotNull String timeString) {
 		Map<String, Integer> timeUnits = Map.of("m", 60, "h", 3600, "d", 86400, "w", 604800, "mo", 2592000, "y", 31536000);
 		String[] parts = timeString.split("(?<=\\D)(?=\\d)|(?<=\\d)(?=\\D)");
@@ -58,34 +104,74 @@ public class DataSource {
 		}
 	}
 
-	private static Map<String, CacheEntry> loadCache() {
-		ensureCacheDirectoryExists();
-		if (!CACHE_FILE.exists()) {
-			return new HashMap<>();
+	private static @NotNull Map<String, CacheEntry> loadCache() {
+		if (cacheLoaded) {
+			return cache;
 		}
-		try (BufferedReader reader = new BufferedReader(new FileReader(CACHE_FILE))) {
-			Type type = new TypeToken<Map<String, CacheEntry>>() {}.getType();
-			return GSON.fromJson(reader, type);
-		} catch (IOException e) {
-			plugin.getLogger().warning("Failed to load cache");
-			return new HashMap<>();
+
+		synchronized (cache) {
+			if (cacheLoaded) {
+				return cache;
+			}
+
+			ensureCacheDirectoryExists();
+			if (CACHE_FILE.exists()) {
+				try (BufferedReader reader = new BufferedReader(new FileReader(CACHE_FILE))) {
+					Type type = new TypeToken<Map<String, CacheEntry>>() {}.getType();
+					Map<String, CacheEntry> loaded = GSON.fromJson(reader, type);
+					if (loaded != null) {
+						loaded.forEach((key, entry) -> {
+							if (key != null && entry != null) {
+								cache.put(key, entry);
+							}
+						});
+					}
+				} catch (Exception e) {
+					plugin.getLogger().warning("Failed to load cache");
+				}
+			}
+			cacheLoaded = true;
 		}
+		return cache;
 	}
 
-	private static void saveCache(Map<String, CacheEntry> cache) {
+	/**
+	 * Writes the head cache to disk if it changed since the last save.
+	 */
+	public static void saveCache() {
+		if (!cacheDirty.getAndSet(false)) {
+			return;
+		}
+
 		ensureCacheDirectoryExists();
 		try (BufferedWriter writer = new BufferedWriter(new FileWriter(CACHE_FILE))) {
-			String jsonString = new Gson().toJson(cache);
-			writer.write(jsonString);
+			Map<String, CacheEntry> snapshot;
+			synchronized (cache) {
+				// Least recently used first, so loading the file restores the same order.
+				snapshot = new LinkedHashMap<>(cache);
+			}
+			GSON.toJson(snapshot, writer);
 		} catch (IOException e) {
+			cacheDirty.set(true);
 			plugin.getLogger().warning("Failed to save cache");
 		}
 	}
 
+	private static void putCacheEntry(String playerName, CacheEntry entry) {
+		loadCache().put(playerName, entry);
+		cacheDirty.set(true);
+	}
+
+	private static long getCacheExpiry() {
+		if (cacheExpiry < 0) {
+			boolean configKeyExists = config.contains("refreshPlayerHeadCache");
+			cacheExpiry = configKeyExists ? convertTimeToMillis(Objects.requireNonNull(config.getString("refreshPlayerHeadCache"))) : CACHE_EXPIRY_DURATION;
+		}
+		return cacheExpiry;
+	}
+
 	private static boolean isCacheValid(long timestamp) {
-		boolean configKeyExists = config.contains("refreshPlayerHeadCache");
-		long configDate = configKeyExists ? convertTimeToMillis(Objects.requireNonNull(config.getString("refreshPlayerHeadCache"))) : CACHE_EXPIRY_DURATION;
-		return System.currentTimeMillis() - timestamp < configDate;
+		return System.currentTimeMillis() - timestamp < getCacheExpiry();
 	}
 
 	private static void ensureCacheDirectoryExists() {
@@ -96,84 +182,199 @@ public class DataSource {
 
 	public static void cleanOutdatedCache(Boolean listAllNewReports) {
 		Map<String, CacheEntry> cache = loadCache();
-		if (cache == null || cache.isEmpty()) {
-			saveCache(new HashMap<>());
-			return;
-		}
 		if (listAllNewReports) return;
-		cache.entrySet().removeIf(entry -> {
-			boolean mainInvalid = !isCacheValid(entry.getValue().timestamp);
-			boolean nestedInvalid = entry.getValue().nestedData == null || !isCacheValid(entry.getValue().nestedData.timestamp);
-			return mainInvalid && nestedInvalid;
-		});
-		saveCache(cache);
+
+		// Pick up changes to refreshPlayerHeadCache.
+		cacheExpiry = -1;
+		mojangApi.cleanUnknownPlayers();
+		boolean removed;
+		synchronized (cache) {
+			removed = cache.entrySet().removeIf(entry -> {
+				boolean mainInvalid = !isCacheValid(entry.getValue().timestamp);
+				boolean nestedInvalid = entry.getValue().nestedData == null || !isCacheValid(entry.getValue().nestedData.timestamp);
+				return mainInvalid && nestedInvalid;
+			});
+		}
+		if (removed) {
+			cacheDirty.set(true);
+		}
+		saveCache();
 	}
 
-	private static @NotNull String fetchFromURL(String urlString) throws IOException {
-		URL url = new URL(urlString);
-		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-		try (InputStreamReader reader = new InputStreamReader(connection.getInputStream())) {
-			StringBuilder result = new StringBuilder();
-			int ch;
-			while ((ch = reader.read()) != -1) {
-				result.append((char) ch);
-			}
-			return result.toString();
+	/**
+	 * Resolves a player's Mojang UUID by name. Names already in the head cache are answered from
+	 * it, and names Mojang does not know are remembered like they are for heads. Blocks on a cache
+	 * miss, so it must not be called from the server thread.
+	 *
+	 * @return the UUID, or null if the player does not exist or Mojang could not be reached.
+	 */
+	public static @Nullable UUID lookupUUID(@NotNull String playerName) {
+		if (mojangApi.isUnknown(playerName)) {
+			return null;
+		}
+
+		try {
+			UUID uuid = getUUIDFromUsername(playerName, loadCache());
+			return "00000000-0000-0000-0000-000000000000".equals(uuid.toString()) ? null : uuid;
+		} catch (MojangApi.UnknownPlayerException e) {
+			return null;
+		} catch (MojangApiGuard.RequestRejectedException e) {
+			return null;
+		} catch (Exception e) {
+			plugin.getLogger().warning("Failed to look up the UUID of " + playerName + ": " + e.getMessage());
+			return null;
 		}
 	}
 
 	private static @NotNull UUID getUUIDFromUsername(String username, @NotNull Map<String, CacheEntry> cache) throws Exception {
-		if (cache.containsKey(username) && isCacheValid(cache.get(username).timestamp)) {
-			return UUID.fromString(cache.get(username).data);
+		CacheEntry cachedEntry = cache.get(username);
+		if (cachedEntry != null && isCacheValid(cachedEntry.timestamp)) {
+			return UUID.fromString(cachedEntry.data);
 		}
-		String response = fetchFromURL("https://api.mojang.com/users/profiles/minecraft/" + username);
-		UUID uuid = extractUUIDFromResponse(response);
+		UUID uuid = mojangApi.fetchUUID(username);
 		CacheEntry existingEntry = cache.get(username);
-		if (existingEntry == null) {
-			existingEntry = new CacheEntry(uuid.toString(), System.currentTimeMillis());
-		} else {
-			existingEntry.data = uuid.toString();
-		}
-		cache.put(username, existingEntry);
-		saveCache(cache);
+		putCacheEntry(username, existingEntry == null
+				? new CacheEntry(uuid.toString(), System.currentTimeMillis())
+				: new CacheEntry(uuid.toString(), existingEntry.timestamp, existingEntry.nestedData));
 		return uuid;
 	}
 
-	private static @NotNull UUID extractUUIDFromResponse(String response) {
-		JsonObject jsonResponse = JsonParser.parseString(response).getAsJsonObject();
-		String uuidString = jsonResponse.get("id").getAsString();
-		return UUID.fromString(
-			uuidString.substring(0, 8) + "-" +
-			uuidString.substring(8, 12) + "-" +
-			uuidString.substring(12, 16) + "-" +
-			uuidString.substring(16, 20) + "-" +
-			uuidString.substring(20, 32)
-		);
+	public static @NotNull ItemStack getPlayerHead(String playerName) {
+		return getPlayerHead(playerName, null);
 	}
 
-	public static @NotNull ItemStack getPlayerHead(String playerName) {
-		cleanOutdatedCache(true);
+	public static @NotNull ItemStack getPlayerHead(String playerName, @Nullable Consumer<ItemStack> onLoaded) {
+		return getPlayerHead(playerName, null, null, onLoaded);
+	}
+
+	public static @NotNull ItemStack getPlayerHead(@NotNull BugReport report, @Nullable Consumer<ItemStack> onLoaded) {
+		return getPlayerHead(report.username(), report.playerId(), report.playerTexture(), onLoaded);
+	}
+
+	/**
+	 * Returns the head for a player without blocking. The texture is taken from, in order: the head
+	 * cache, the player's own profile if they are online, and the texture stored with their report.
+	 * Only if none of these has it, a default head is returned and the texture is looked up from
+	 * Mojang in the background; {@code onLoaded} is then called on the server thread with the
+	 * textured head, so callers can swap it into their GUI.
+	 *
+	 * @param playerId    the player's UUID if known, which saves the username lookup.
+	 * @param knownTexture a texture captured earlier, for example when the report was submitted.
+	 */
+	public static @NotNull ItemStack getPlayerHead(String playerName, @Nullable UUID playerId, @Nullable String knownTexture, @Nullable Consumer<ItemStack> onLoaded) {
 		if (playerName == null || playerName.trim().isEmpty()) {
 			return getDefaultPlayerHead();
 		}
 
-		try {
-			Map<String, CacheEntry> cache = loadCache();
-			String base64;
-
-			if (checkIfPlayerHeadIsCached(playerName, cache)) {
-				base64 = cache.get(playerName).nestedData.data;
-			} else {
-				UUID uuid = getUUIDFromUsername(playerName, cache);
-				base64 = getBase64FromUUID(uuid, cache);
-				updatePlayerHeadCache(playerName, uuid.toString(), base64, cache);
+		String base64 = getCachedTexture(playerName);
+		if (base64 != null) {
+			return !base64.isEmpty() ? createSkullItem(base64, playerName) : getDefaultPlayerHead();
+		}
+
+		Player onlinePlayer = Bukkit.getPlayerExact(playerName);
+		if (onlinePlayer != null) {
+			base64 = capturePlayerTexture(onlinePlayer);
+			if (base64 != null) {
+				return createSkullItem(base64, playerName);
 			}
+		}
 
-			return base64 != null && !base64.isEmpty() ? createSkullItem(base64, playerName) : getDefaultPlayerHead();
-		} catch (Exception e) {
-			plugin.getLogger().warning("Failed to get player head for " + playerName + ": " + e.getMessage());
+		if (knownTexture != null && !knownTexture.isEmpty()) {
+			return createSkullItem(knownTexture, playerName);
+		}
+
+		if (mojangApi.isUnknown(playerName)) {
 			return getDefaultPlayerHead();
 		}
+
+		CompletableFuture<String> lookup = lookupTexture(playerName, playerId);
+		if (onLoaded != null) {
+			lookup.thenAcceptAsync(texture -> {
+				if (texture != null && !texture.isEmpty()) {
+					onLoaded.accept(createSkullItem(texture, playerName));
+				}
+			}, BugReportDatabase.mainThread());
+		}
+		return getDefaultPlayerHead();
+	}
+
+	private static @Nullable String getCachedTexture(String playerName) {
+		CacheEntry entry = loadCache().get(playerName);
+		if (entry == null || !isCacheValid(entry.timestamp)) {
+			return null;
+		}
+
+		if ("00000000-0000-0000-0000-000000000000".equals(entry.data)) {
+			return "";
+		}
+		return entry.nestedData != null ? entry.nestedData.data : null;
+	}
+
+	/**
+	 * Starts a texture lookup for a player, or joins the one that is already running so that a
+	 * page full of reports from the same player only contacts Mojang once.
+	 *
+	 * @return a future completed with the texture, or with null if the lookup failed.
+	 */
+	private static @NotNull CompletableFuture<String> lookupTexture(String playerName, @Nullable UUID playerId) {
+		CompletableFuture<String> lookup = pendingLookups.get(playerName);
+		if (lookup != null) {
+			return lookup;
+		}
+
+		CompletableFuture<String> newLookup = new CompletableFuture<>();
+		lookup = pendingLookups.putIfAbsent(playerName, newLookup);
+		if (lookup != null) {
+			return lookup;
+		}
+
+		Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+			try {
+				newLookup.complete(fetchTexture(playerName, playerId));
+			} catch (MojangApi.UnknownPlayerException e) {
+				mojangApi.markUnknown(playerName);
+				newLookup.complete(null);
+			} catch (MojangApiGuard.RequestRejectedException e) {
+				// Not worth a warning, the next GUI open tries again.
+				newLookup.complete(null);
+			} catch (Exception e) {
+				plugin.getLogger().warning("Failed to get player head for " + playerName + ": " + e.getMessage());
+				newLookup.complete(null);
+			} finally {
+				pendingLookups.remove(playerName, newLookup);
+			}
+		});
+		return newLookup;
+	}
+
+	private static @NotNull String fetchTexture(String playerName, @Nullable UUID playerId) throws Exception {
+		Map<String, CacheEntry> cache = loadCache();
+		// Offline mode servers hand out version 3 UUIDs that Mojang does not know about.
+		UUID uuid = playerId != null && playerId.version() == 4 ? playerId : getUUIDFromUsername(playerName, cache);
+		String base64 = getBase64FromUUID(uuid, cache.get(playerName));
+		updatePlayerHeadCache(playerName, uuid.toString(), base64);
+		return base64;
+	}
+
+	/**
+	 * Reads the skin texture from an online player's own profile and puts it in the head cache.
+	 *
+	 * @return the texture in the same Base64 form Mojang uses, or null if the profile has no skin.
+	 */
+	public static @Nullable String capturePlayerTexture(@NotNull Player player) {
+		URL skin = player.getPlayerProfile().getTextures().getSkin();
+		if (skin == null) {
+			return null;
+		}
+
+		String textureJson = "{\"textures\":{\"SKIN\":{\"url\":\"" + skin + "\"}}}";
+		String base64 = Base64.getEncoder().encodeToString(textureJson.getBytes(StandardCharsets.UTF_8));
+
+		CacheEntry entry = loadCache().get(player.getName());
+		if (entry == null || entry.nestedData == null || !base64.equals(entry.nestedData.data) || !isCacheValid(entry.timestamp)) {
+			updatePlayerHeadCache(player.getName(), player.getUniqueId().toString(), base64);
+		}
+		return base64;
 	}
 
 	private static @NotNull ItemStack getDefaultPlayerHead() {
@@ -186,118 +387,77 @@ public class DataSource {
 		return defaultHead;
 	}
 
-	private static void updatePlayerHeadCache(String playerName, String uuid, String base64, @NotNull Map<String, CacheEntry> cache) {
+	private static void updatePlayerHeadCache(String playerName, String uuid, String base64) {
 		long currentTime = System.currentTimeMillis();
-		CacheEntry playerCacheEntry = new CacheEntry(uuid, currentTime);
-		playerCacheEntry.nestedData = new CacheEntry(base64, currentTime);
-
-		cache.put(playerName, playerCacheEntry);
-		saveCache(cache);
+		putCacheEntry(playerName, new CacheEntry(uuid, currentTime, new CacheEntry(base64, currentTime)));
 	}
 
 	private static @NotNull ItemStack createSkullItem(String textureValue, String displayName) {
-		ItemStack playerHead = new ItemStack(Material.PLAYER_HEAD);
-		SkullMeta skullMeta = (SkullMeta) playerHead.getItemMeta();
-
-		if (skullMeta != null && textureValue != null && !textureValue.isEmpty()) {
-			try {
-				String decodedValue = new String(Base64.getDecoder().decode(textureValue));
-				JsonObject textureJson = JsonParser.parseString(decodedValue).getAsJsonObject();
-				String textureUrl = textureJson.getAsJsonObject("textures")
-						.getAsJsonObject("SKIN")
-						.get("url").getAsString();
-
-				PlayerProfile profile = Bukkit.createPlayerProfile(UUID.randomUUID());
-				PlayerTextures textures = profile.getTextures();
+		return createSkullItem(textureValue, displayName, null);
+	}
 
-				textures.setSkin (new URL (textureUrl));
-				profile.setTextures(textures);
-				skullMeta.setOwnerProfile(profile);
+	/**
+	 * Creates a textured player head. Decoding the texture and building the profile is only done
+	 * the first time a texture, name and model data combination is seen; after that a clone of
+	 * the finished item is returned.
+	 */
+	public static @NotNull ItemStack createSkullItem(String textureValue, String displayName, @Nullable Integer customModelData) {
+		if (textureValue == null || textureValue.isEmpty()) {
+			return new ItemStack(Material.PLAYER_HEAD);
+		}
 
-				skullMeta.setDisplayName(displayName);
-				playerHead.setItemMeta(skullMeta);
-			} catch (Exception e) {
-				plugin.getLogger().warning("Failed to set custom player head texture: " + e.getMessage());
+		String templateKey = textureValue + "|" + displayName + "|" + customModelData;
+		ItemStack template = skullTemplates.get(templateKey);
+		if (template == null) {
+			template = buildSkullItem(textureValue, displayName, customModelData);
+			if (template == null) {
 				return new ItemStack(Material.PLAYER_HEAD); // Fallback to default head on failure
 			}
+			skullTemplates.put(templateKey, template);
 		}
-
-		return playerHead;
-	}
-
-	private static boolean checkIfPlayerHeadIsCached(String playerName, @NotNull Map<String, CacheEntry> cache) {
-		return cache.containsKey(playerName) && isCacheValid(cache.get(playerName).timestamp);
+		return template.clone();
 	}
 
-	private static @NotNull ItemStack getCachedPlayerHead(String playerName, @NotNull Map<String, CacheEntry> cache) {
-		CacheEntry mainEntry = cache.get(playerName);
-		String base64 = null;
-		if ("00000000-0000-0000-0000-000000000000".equals(mainEntry.data)) {
-			return new ItemStack(Material.PLAYER_HEAD);
-		}
-		if (mainEntry.nestedData != null) {
-			base64 = mainEntry.nestedData.data;
+	private static @Nullable ItemStack buildSkullItem(String textureValue, String displayName, @Nullable Integer customModelData) {
+		ItemStack playerHead = new ItemStack(Material.PLAYER_HEAD);
+		SkullMeta skullMeta = (SkullMeta) playerHead.getItemMeta();
+		if (skullMeta == null) {
+			return playerHead;
 		}
-		ItemStack head = new ItemStack(Material.PLAYER_HEAD);
-		SkullMeta skullMeta = (SkullMeta) head.getItemMeta();
-		Objects.requireNonNull(skullMeta).setDisplayName(playerName);
+
 		try {
-			if (base64 != null) {
-				setSkullWithBase64(skullMeta, base64);
-			} else {
-				throw new IllegalArgumentException("Base64 data for player " + playerName + " not found in cache.");
+			String decodedValue = new String(Base64.getDecoder().decode(textureValue));
+			JsonObject textureJson = JsonParser.parseString(decodedValue).getAsJsonObject();
+			String textureUrl = textureJson.getAsJsonObject("textures")
+					.getAsJsonObject("SKIN")
+					.get("url").getAsString();
+
+			PlayerProfile profile = Bukkit.createPlayerProfile(UUID.randomUUID());
+			PlayerTextures textures = profile.getTextures();
+
+			textures.setSkin (new URL (textureUrl));
+			profile.setTextures(textures);
+			skullMeta.setOwnerProfile(profile);
+
+			skullMeta.setDisplayName(displayName);
+			if (customModelData != null) {
+				skullMeta.setCustomModelData(customModelData);
 			}
+			playerHead.setItemMeta(skullMeta);
+			return playerHead;
 		} catch (Exception e) {
-			plugin.getLogger().warning("Failed to get cached player head for " + playerName);
+			plugin.getLogger().warning("Failed to set custom player head texture: " + e.getMessage());
+			return null;
 		}
-		head.setItemMeta(skullMeta);
-		return head;
 	}
 
-	private static @NotNull String getBase64FromUUID(@NotNull UUID uuid, @NotNull Map<String, CacheEntry> cache) throws Exception {
+	private static @NotNull String getBase64FromUUID(@NotNull UUID uuid, CacheEntry mainEntry) throws Exception {
 		if ("00000000-0000-0000-0000-000000000000".equals(uuid.toString())) {
 			return "";
 		}
-		String cacheKey = uuid.toString();
-		CacheEntry mainEntry = cache.values().stream().filter(entry -> cacheKey.equals(entry.data)).findFirst().orElse(null);
-		if (mainEntry != null && mainEntry.nestedData != null && isCacheValid(mainEntry.nestedData.timestamp)) {
+		if (mainEntry != null && uuid.toString().equals(mainEntry.data) && mainEntry.nestedData != null && isCacheValid(mainEntry.nestedData.timestamp)) {
 			return mainEntry.nestedData.data;
 		}
-		String response = fetchFromURL("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid.toString().replace("-", ""));
-		JsonObject jsonResponse = JsonParser.parseString(response).getAsJsonObject();
-		JsonArray properties = jsonResponse.getAsJsonArray("properties");
-		for (int i = 0; i < properties.size(); i++) {
-			JsonObject property = properties.get(i).getAsJsonObject();
-			if ("textures".equals(property.get("name").getAsString())) {
-				String base64 = property.get("value").getAsString();
-				if (mainEntry != null) {
-					mainEntry.nestedData = new CacheEntry(base64, System.currentTimeMillis());
-				}
-				saveCache(cache);
-				return base64;
-			}
-		}
-		throw new IllegalArgumentException("Couldn't find textures property for UUID " + uuid);
-	}
-
-	private static void setSkullWithBase64(@NotNull SkullMeta skullMeta, String base64) {
-		if (base64 == null || base64.isEmpty()) {
-			plugin.getLogger().warning("Base64 string is empty. Cannot set custom player head texture.");
-			return;
-		}
-
-		try {
-			java.lang.reflect.Field profileField = skullMeta.getClass().getDeclaredField("profile");
-			profileField.setAccessible(true);
-			profileField.set(skullMeta, createGameProfile(base64));
-		} catch (NoSuchFieldException | IllegalAccessException e) {
-			plugin.getLogger().warning("Failed to set custom player head texture: " + e.getMessage());
-		}
-	}
-
-	private static @NotNull GameProfile createGameProfile(String textureValue) {
-		GameProfile profile = new GameProfile(UUID.randomUUID(), "GameProfile");
-		profile.getProperties().put("textures", new Property("textures", textureValue));
-		return profile;
+		return mojangApi.fetchTexture(uuid);
 	}
 }
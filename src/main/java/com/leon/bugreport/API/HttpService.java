@@ -0,0 +1,120 @@
+package com.leon.bugreport.API;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.net.URI;
+import java.net.http.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The one HTTP client used for every outbound request: Mojang, playerdb, Discord and the update
+ * check. Sharing it keeps connections alive between requests, so repeated lookups against the same
+ * host skip the TLS handshake, and lets HTTP/2 hosts multiplex requests over a single connection.
+ * <p>
+ * Every request has a connect timeout and an overall request timeout, so a server that stops
+ * answering can never hold a thread forever. Response bodies are read in full and buffered as
+ * bytes before they are returned, which keeps the overall timeout simple. The responses handled
+ * here are small, and callers can still parse them from a reader without building a string.
+ */
+public class HttpService {
+	private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+	public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+	private static final String USER_AGENT = "BugReport/0.9.1";
+
+	private static final AtomicInteger threadCount = new AtomicInteger();
+	private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "BugReport-HTTP-" + threadCount.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_2)
+			.connectTimeout(CONNECT_TIMEOUT)
+			.followRedirects(HttpClient.Redirect.NORMAL)
+			.executor(executor)
+			.build();
+
+	/**
+	 * A fully received response. The body is kept as bytes so it can be parsed straight from a
+	 * reader without building an intermediate string.
+	 */
+	public record Response(int statusCode, @NotNull HttpHeaders headers, byte @NotNull [] body) {
+		public boolean isSuccess() {
+			return statusCode >= 200 && statusCode < 300;
+		}
+
+		public @NotNull Reader bodyReader() {
+			return new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+		}
+
+		public @NotNull String bodyString() {
+			return new String(body, StandardCharsets.UTF_8);
+		}
+
+		public @Nullable String header(@NotNull String name) {
+			return headers.firstValue(name).orElse(null);
+		}
+	}
+
+	public static @NotNull Response get(@NotNull String url, @NotNull Duration timeout) throws IOException {
+		HttpRequest request = newRequest(url, timeout)
+				.GET()
+				.build();
+		return send(request, timeout);
+	}
+
+	public static @NotNull Response postJson(@NotNull String url, @NotNull String json, @NotNull Duration timeout) throws IOException {
+		HttpRequest request = newRequest(url, timeout)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))
+				.build();
+		return send(request, timeout);
+	}
+
+	/**
+	 * Drops the client's worker threads when the plugin is disabled. No requests can be made after.
+	 */
+	public static void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private static @NotNull HttpRequest.Builder newRequest(@NotNull String url, @NotNull Duration timeout) throws IOException {
+		try {
+			return HttpRequest.newBuilder(URI.create(url))
+					.timeout(timeout)
+					.header("User-Agent", USER_AGENT);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid URL: " + url, e);
+		}
+	}
+
+	/**
+	 * The request timeout only covers the wait for the response headers, so the whole exchange
+	 * including the body is bounded here as well.
+	 */
+	private static @NotNull Response send(@NotNull HttpRequest request, @NotNull Duration timeout) throws IOException {
+		CompletableFuture<HttpResponse<byte[]>> future = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+		try {
+			HttpResponse<byte[]> response = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+			return new Response(response.statusCode(), response.headers(), response.body());
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Request to " + request.uri().getHost() + " was interrupted");
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			throw new HttpTimeoutException("Request to " + request.uri().getHost() + " timed out");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IOException("Request to " + request.uri().getHost() + " failed", e.getCause());
+		}
+	}
+}
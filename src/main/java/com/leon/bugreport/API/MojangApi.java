@@ -0,0 +1,180 @@
+package com.leon.bugreport.API;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * The Mojang profile and session endpoints behind a {@link MojangApiGuard}.
+ * <p>
+ * Names Mojang does not know are remembered for a while, so lookups for them are answered without
+ * a request. The base URLs, the guard and the clock are passed in, which lets the lookups run
+ * against another server and lets the limits be checked without waiting for them.
+ */
+public class MojangApi {
+	public static final String DEFAULT_PROFILE_URL = "https://api.mojang.com/users/profiles/minecraft/";
+	public static final String DEFAULT_SESSION_URL = "https://sessionserver.mojang.com/session/minecraft/profile/";
+	public static final long DEFAULT_NEGATIVE_CACHE_MILLIS = 60 * 60 * 1000; // 1 hour
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+	private static final int MAX_UNKNOWN_PLAYERS = 1000;
+
+	private final String profileURL;
+	private final String sessionURL;
+	private final MojangApiGuard guard;
+	private final LongSupplier clock;
+	private final long negativeCacheMillis;
+	// Names Mojang does not know, kept out of the persisted cache and retried sooner than real heads.
+	// Capped like the head cache, a flood of made-up names only pushes out the oldest ones.
+	private final Map<String, Long> unknownPlayers = Collections.synchronizedMap(new LinkedHashMap<String, Long>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+			return size() > MAX_UNKNOWN_PLAYERS;
+		}
+	});
+
+	/**
+	 * Thrown when Mojang answers that no player with the requested name or UUID exists.
+	 */
+	public static class UnknownPlayerException extends IOException {
+		public UnknownPlayerException(String message) {
+			super(message);
+		}
+	}
+
+	public MojangApi() {
+		this(DEFAULT_PROFILE_URL, DEFAULT_SESSION_URL, new MojangApiGuard(), System::currentTimeMillis, DEFAULT_NEGATIVE_CACHE_MILLIS);
+	}
+
+	/**
+	 * @param profileURL the URL that a player name is appended to, to look up their UUID.
+	 * @param sessionURL the URL that a UUID without dashes is appended to, to look up its textures.
+	 */
+	public MojangApi(@NotNull String profileURL, @NotNull String sessionURL, @NotNull MojangApiGuard guard, @NotNull LongSupplier clock, long negativeCacheMillis) {
+		this.profileURL = profileURL;
+		this.sessionURL = sessionURL;
+		this.guard = guard;
+		this.clock = clock;
+		this.negativeCacheMillis = negativeCacheMillis;
+	}
+
+	public @NotNull MojangApiGuard getGuard() {
+		return guard;
+	}
+
+	/**
+	 * @return true if Mojang recently answered that no player with this name exists.
+	 */
+	public boolean isUnknown(@NotNull String playerName) {
+		Long unknownSince = unknownPlayers.get(playerName);
+		return unknownSince != null && clock.getAsLong() - unknownSince < negativeCacheMillis;
+	}
+
+	public void markUnknown(@NotNull String playerName) {
+		unknownPlayers.put(playerName, clock.getAsLong());
+	}
+
+	/**
+	 * Drops the unknown names whose time in the negative cache has run out.
+	 */
+	public void cleanUnknownPlayers() {
+		long now = clock.getAsLong();
+		synchronized (unknownPlayers) {
+			unknownPlayers.values().removeIf(unknownSince -> now - unknownSince >= negativeCacheMillis);
+		}
+	}
+
+	/**
+	 * Looks up a player's UUID by name. Blocks, so it must not be called from the server thread.
+	 *
+	 * @throws UnknownPlayerException if no player with this name exists, or none did recently.
+	 * @throws MojangApiGuard.RequestRejectedException if the guard did not let the request through.
+	 */
+	public @NotNull UUID fetchUUID(@NotNull String playerName) throws IOException {
+		if (isUnknown(playerName)) {
+			throw new UnknownPlayerException("No such player");
+		}
+
+		JsonObject response;
+		try {
+			response = fetch(profileURL + playerName);
+		} catch (UnknownPlayerException e) {
+			markUnknown(playerName);
+			throw e;
+		}
+
+		try {
+			String uuidString = response.get("id").getAsString();
+			return UUID.fromString(
+				uuidString.substring(0, 8) + "-" +
+				uuidString.substring(8, 12) + "-" +
+				uuidString.substring(12, 16) + "-" +
+				uuidString.substring(16, 20) + "-" +
+				uuidString.substring(20, 32)
+			);
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid profile for " + playerName, e);
+		}
+	}
+
+	/**
+	 * Looks up the Base64 textures property of a player. Blocks, so it must not be called from the
+	 * server thread.
+	 *
+	 * @throws UnknownPlayerException if no player with this UUID exists.
+	 * @throws MojangApiGuard.RequestRejectedException if the guard did not let the request through.
+	 */
+	public @NotNull String fetchTexture(@NotNull UUID uuid) throws IOException {
+		JsonObject response = fetch(sessionURL + uuid.toString().replace("-", ""));
+		JsonArray properties = response.getAsJsonArray("properties");
+		if (properties != null) {
+			for (int i = 0; i < properties.size(); i++) {
+				JsonObject property = properties.get(i).getAsJsonObject();
+				if ("textures".equals(property.get("name").getAsString())) {
+					return property.get("value").getAsString();
+				}
+			}
+		}
+		throw new IOException("Couldn't find textures property for UUID " + uuid);
+	}
+
+	private @NotNull JsonObject fetch(@NotNull String url) throws IOException {
+		guard.acquire();
+
+		try {
+			HttpService.Response response = HttpService.get(url, REQUEST_TIMEOUT);
+			int responseCode = response.statusCode();
+			if (responseCode == HttpURLConnection.HTTP_NO_CONTENT || responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+				guard.recordSuccess();
+				throw new UnknownPlayerException("No such player");
+			}
+			if (responseCode != HttpURLConnection.HTTP_OK) {
+				throw new IOException("Unexpected response code " + responseCode + " from " + URI.create(url).getHost());
+			}
+
+			try (Reader reader = response.bodyReader()) {
+				JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+				guard.recordSuccess();
+				return json;
+			} catch (RuntimeException e) {
+				throw new IOException("Invalid response from " + URI.create(url).getHost(), e);
+			}
+		} catch (UnknownPlayerException e) {
+			throw e;
+		} catch (IOException e) {
+			guard.recordFailure();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package com.leon.bugreport.API;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Protects the Mojang profile APIs from being hammered by head lookups.
+ * <p>
+ * Requests first take a token from a bucket that refills at a fixed rate, so a burst of cold
+ * lookups is spread out instead of running into Mojang's rate limit. A circuit breaker counts
+ * consecutive failures; once it opens, requests are rejected without touching the network until
+ * the cool-down has passed, after which a single trial request decides whether it closes again.
+ * <p>
+ * Time is read from the clock passed to the constructor, so the limits can be checked without
+ * waiting for them.
+ */
+public class MojangApiGuard {
+	public enum State { CLOSED, OPEN, HALF_OPEN }
+
+	public static final int DEFAULT_BUCKET_CAPACITY = 10;
+	public static final long DEFAULT_REFILL_INTERVAL_MILLIS = 1000; // One request per second on average
+	public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+	public static final long DEFAULT_OPEN_DURATION_MILLIS = 60 * 1000;
+
+	private final LongSupplier clock;
+	private final int bucketCapacity;
+	private final long refillIntervalMillis;
+	private final int failureThreshold;
+	private final long openDurationMillis;
+
+	private double tokens;
+	private long lastRefill;
+
+	private State state = State.CLOSED;
+	private int consecutiveFailures;
+	private long openedAt;
+	private boolean trialInFlight;
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong rejectedByLimiter = new AtomicLong();
+	private final AtomicLong rejectedByBreaker = new AtomicLong();
+
+	/**
+	 * Thrown instead of making a request while the limiter is empty or the breaker is open.
+	 */
+	public static class RequestRejectedException extends IOException {
+		public RequestRejectedException(String message) {
+			super(message);
+		}
+	}
+
+	public MojangApiGuard() {
+		this(System::currentTimeMillis, DEFAULT_BUCKET_CAPACITY, DEFAULT_REFILL_INTERVAL_MILLIS, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION_MILLIS);
+	}
+
+	/**
+	 * @param clock                returns the current time in milliseconds.
+	 * @param bucketCapacity       the number of requests that can be made in a burst.
+	 * @param refillIntervalMillis the time it takes to refill one token.
+	 * @param failureThreshold     the number of consecutive failures that open the breaker.
+	 * @param openDurationMillis   how long the breaker stays open before a trial request.
+	 */
+	public MojangApiGuard(@NotNull LongSupplier clock, int bucketCapacity, long refillIntervalMillis, int failureThreshold, long openDurationMillis) {
+		this.clock = clock;
+		this.bucketCapacity = bucketCapacity;
+		this.refillIntervalMillis = refillIntervalMillis;
+		this.failureThreshold = failureThreshold;
+		this.openDurationMillis = openDurationMillis;
+		this.tokens = bucketCapacity;
+		this.lastRefill = clock.getAsLong();
+	}
+
+	/**
+	 * Must be called before every request. Every request that is let through has to be followed
+	 * by {@link #recordSuccess()} or {@link #recordFailure()}.
+	 */
+	public synchronized void acquire() throws RequestRejectedException {
+		long now = clock.getAsLong();
+
+		if (state == State.OPEN) {
+			if (now - openedAt < openDurationMillis) {
+				rejectedByBreaker.incrementAndGet();
+				throw new RequestRejectedException("Mojang lookups are paused after repeated failures.");
+			}
+			state = State.HALF_OPEN;
+		}
+
+		if (state == State.HALF_OPEN && trialInFlight) {
+			rejectedByBreaker.incrementAndGet();
+			throw new RequestRejectedException("Waiting for a trial Mojang lookup to finish.");
+		}
+
+		tokens = Math.min(bucketCapacity, tokens + (double) (now - lastRefill) / refillIntervalMillis);
+		lastRefill = now;
+		if (tokens < 1) {
+			rejectedByLimiter.incrementAndGet();
+			throw new RequestRejectedException("Too many Mojang lookups, try again shortly.");
+		}
+
+		tokens--;
+		requests.incrementAndGet();
+		if (state == State.HALF_OPEN) {
+			trialInFlight = true;
+		}
+	}
+
+	public synchronized void recordSuccess() {
+		consecutiveFailures = 0;
+		trialInFlight = false;
+		state = State.CLOSED;
+	}
+
+	/**
+	 * Records a failed request. Answers saying that a player does not exist are not failures.
+	 */
+	public synchronized void recordFailure() {
+		failures.incrementAndGet();
+		trialInFlight = false;
+		consecutiveFailures++;
+
+		if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+			state = State.OPEN;
+			openedAt = clock.getAsLong();
+		}
+	}
+
+	public synchronized @NotNull State getState() {
+		if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationMillis) {
+			return State.HALF_OPEN;
+		}
+		return state;
+	}
+
+	/*
+	 * The counters below are reset when read, so each metrics submission reports the number of
+	 * requests since the previous one.
+	 */
+	public long drainRequestCount() {
+		return requests.getAndSet(0);
+	}
+
+	public long drainFailureCount() {
+		return failures.getAndSet(0);
+	}
+
+	public long drainRejectedCount() {
+		return rejectedByLimiter.getAndSet(0) + rejectedByBreaker.getAndSet(0);
+	}
+}
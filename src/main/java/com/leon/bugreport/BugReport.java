@@ -0,0 +1,141 @@
+package com.leon.bugreport;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * An immutable bug report as stored in the {@code bug_reports} table.
+ * <p>
+ * Reports are decoded once when they are read from the database and passed around in this form,
+ * so nothing outside of {@link #toHeader()} and {@link #headerValue(String, String)} has to deal
+ * with the legacy newline-encoded {@code header} column.
+ */
+public record BugReport(
+        int id,
+        @NotNull UUID playerId,
+        String username,
+        String world,
+        @Nullable Integer categoryId,
+        String message,
+        boolean archived,
+        long timestamp,
+        @Nullable ReportLocation location,
+        @Nullable String gamemode,
+        @Nullable String playerTexture
+) {
+    public @NotNull BugReport withId(int id) {
+        return new BugReport(id, playerId, username, world, categoryId, message, archived, timestamp, location, gamemode, playerTexture);
+    }
+
+    public @NotNull BugReport withArchived(boolean archived) {
+        return new BugReport(id, playerId, username, world, categoryId, message, archived, timestamp, location, gamemode, playerTexture);
+    }
+
+    /**
+     * Encodes this report in the legacy {@code "Key: value\n..."} format that is stored in the
+     * {@code header} column and exposed through {@link com.leon.bugreport.listeners.ReportCreatedEvent}.
+     */
+    public @NotNull String toHeader() {
+        return "Username: " + username + "\n" +
+                "UUID: " + playerId + "\n" +
+                "World: " + world + "\n" +
+                "hasBeenRead: 0" + "\n" +
+                "Category ID: " + categoryId + "\n" +
+                "Full Message: " + message + "\n" +
+                "Archived: " + (archived ? 1 : 0) + "\n" +
+                "Report ID: " + id + "\n" +
+                "Timestamp: " + timestamp + "\n" +
+                "Location: " + (location != null ? location.serialize() : null) + "\n" +
+                "Gamemode: " + gamemode;
+    }
+
+    /**
+     * Reads a single value out of a legacy newline-encoded header.
+     *
+     * @return the trimmed value, or null if the key is missing or was stored as "null".
+     */
+    public static @Nullable String headerValue(@Nullable String header, @NotNull String key) {
+        if (header == null) {
+            return null;
+        }
+
+        String prefix = key + ":";
+        for (String line : header.split("\n")) {
+            if (line.startsWith(prefix)) {
+                String value = line.substring(prefix.length()).trim();
+                return value.isEmpty() || value.equals("null") ? null : value;
+            }
+        }
+        return null;
+    }
+
+    public static @Nullable Integer parseCategoryId(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Block position a report was submitted at. The world is kept by name so that reports from
+     * worlds that are not currently loaded can still be listed.
+     */
+    public record ReportLocation(String world, int x, int y, int z) {
+        public static @NotNull ReportLocation of(@NotNull Location location) {
+            return new ReportLocation(
+                    location.getWorld() != null ? location.getWorld().getName() : "",
+                    location.getBlockX(),
+                    location.getBlockY(),
+                    location.getBlockZ()
+            );
+        }
+
+        /**
+         * Parses the {@code "world, x, y, z"} format stored in the {@code location} column.
+         *
+         * @return the parsed location, or null if the value is missing or malformed.
+         */
+        @Contract("null -> null")
+        public static @Nullable ReportLocation parse(@Nullable String value) {
+            if (value == null) {
+                return null;
+            }
+
+            String[] parts = value.split(",");
+            if (parts.length != 4) {
+                return null;
+            }
+
+            try {
+                return new ReportLocation(
+                        parts[0].trim(),
+                        (int) Math.floor(Double.parseDouble(parts[1].trim())),
+                        (int) Math.floor(Double.parseDouble(parts[2].trim())),
+                        (int) Math.floor(Double.parseDouble(parts[3].trim()))
+                );
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        public @NotNull String serialize() {
+            return world + ", " + x + ", " + y + ", " + z;
+        }
+
+        public @Nullable Location toBukkitLocation() {
+            World bukkitWorld = Bukkit.getWorld(world);
+            return bukkitWorld != null ? new Location(bukkitWorld, x, y, z) : null;
+        }
+    }
+}
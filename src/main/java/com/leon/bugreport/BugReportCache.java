@@ -0,0 +1,267 @@
+package com.leon.bugreport;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * In-memory copy of the {@code bug_reports} table, ordered by report ID.
+ * <p>
+ * The cache is filled once on startup (and on {@code /bugreport reload}) and is then patched in
+ * place by {@link BugReportManager} whenever a report is added, archived, unarchived or deleted,
+ * so reading it never touches the database. It is safe to read from any thread.
+ * <p>
+ * Open and archived reports are additionally kept in their own ordered maps so that the list GUI
+ * can page through either one with {@link #page(boolean, int, int)} without walking the other.
+ * Writers are serialized so that the three maps always agree; readers never lock.
+ * <p>
+ * The number of open and archived reports is tracked in counters that are updated together with
+ * the maps, because {@link ConcurrentSkipListMap#size()} walks the whole map and these totals are
+ * read on every PlaceholderAPI resolution. Per-player totals are kept the same way for Plan, which
+ * asks for them for every player on join, on leave and periodically.
+ * <p>
+ * A reload reads the table on a database thread while the server keeps archiving, deleting and
+ * adding reports. Between {@link #beginReload()} and {@link #replaceAll(Collection)} every change
+ * is recorded and applied again on top of the loaded reports, so a reload never undoes a change
+ * that was made while it was running.
+ */
+public class BugReportCache {
+    private final ConcurrentSkipListMap<Integer, BugReport> reports = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, BugReport> openReports = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, BugReport> archivedReports = new ConcurrentSkipListMap<>();
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final AtomicInteger archivedCount = new AtomicInteger();
+    private final ConcurrentHashMap<UUID, PlayerReportCounts> playerCounts = new ConcurrentHashMap<>();
+    private final Map<Integer, BugReport> reloadChanges = new HashMap<>();
+    private int pendingReloads;
+
+    public record PlayerReportCounts(int total, int archived) {
+        public static final PlayerReportCounts EMPTY = new PlayerReportCounts(0, 0);
+
+        public int nonArchived() {
+            return total - archived;
+        }
+    }
+
+    /**
+     * Starts recording changes for a reload that is about to read the table. Every call must be
+     * followed by either {@link #replaceAll(Collection)} or {@link #cancelReload()}.
+     */
+    public synchronized void beginReload() {
+        pendingReloads++;
+    }
+
+    public synchronized void cancelReload() {
+        finishReload();
+    }
+
+    private void finishReload() {
+        if (pendingReloads > 0 && --pendingReloads == 0) {
+            reloadChanges.clear();
+        }
+    }
+
+    /**
+     * Replaces the cached reports with the given ones. If a reload was started with
+     * {@link #beginReload()}, the changes made since then are kept.
+     */
+    public synchronized void replaceAll(@NotNull Collection<BugReport> bugReports) {
+        Map<Integer, BugReport> loaded = new ConcurrentSkipListMap<>();
+        for (BugReport report : bugReports) {
+            loaded.put(report.id(), report);
+        }
+        for (Map.Entry<Integer, BugReport> change : reloadChanges.entrySet()) {
+            if (change.getValue() != null) {
+                loaded.put(change.getKey(), change.getValue());
+            } else {
+                loaded.remove(change.getKey());
+            }
+        }
+        finishReload();
+
+        reports.keySet().retainAll(loaded.keySet());
+        openReports.keySet().retainAll(loaded.keySet());
+        archivedReports.keySet().retainAll(loaded.keySet());
+        for (BugReport report : loaded.values()) {
+            store(report);
+        }
+
+        openCount.set(openReports.size());
+        archivedCount.set(archivedReports.size());
+
+        playerCounts.clear();
+        for (BugReport report : reports.values()) {
+            adjustPlayerCounts(report, 1);
+        }
+    }
+
+    public synchronized void put(@NotNull BugReport report) {
+        recordChange(report.id(), report);
+        store(report);
+    }
+
+    private void store(@NotNull BugReport report) {
+        BugReport previous = reports.put(report.id(), report);
+        byState(report.archived()).put(report.id(), report);
+        byState(!report.archived()).remove(report.id());
+
+        if (previous != null) {
+            counterFor(previous.archived()).decrementAndGet();
+            adjustPlayerCounts(previous, -1);
+        }
+        counterFor(report.archived()).incrementAndGet();
+        adjustPlayerCounts(report, 1);
+    }
+
+    public @Nullable BugReport get(int reportId) {
+        return reports.get(reportId);
+    }
+
+    public synchronized @Nullable BugReport setArchived(int reportId, boolean archived) {
+        BugReport report = reports.get(reportId);
+        if (report == null) {
+            return null;
+        }
+
+        BugReport updated = report.withArchived(archived);
+        put(updated);
+        return updated;
+    }
+
+    public synchronized @Nullable BugReport remove(int reportId) {
+        recordChange(reportId, null);
+        openReports.remove(reportId);
+        archivedReports.remove(reportId);
+
+        BugReport removed = reports.remove(reportId);
+        if (removed != null) {
+            counterFor(removed.archived()).decrementAndGet();
+            adjustPlayerCounts(removed, -1);
+        }
+        return removed;
+    }
+
+    private void recordChange(int reportId, @Nullable BugReport report) {
+        if (pendingReloads > 0) {
+            reloadChanges.put(reportId, report);
+        }
+    }
+
+    /**
+     * Keyset pagination over either the open or the archived reports.
+     *
+     * @param afterId only reports with an ID greater than this are returned, use 0 for the first page.
+     * @return at most {@code limit} reports in ascending report ID order.
+     */
+    public @NotNull List<BugReport> page(boolean archived, int afterId, int limit) {
+        List<BugReport> page = new ArrayList<>(limit);
+        for (BugReport report : byState(archived).tailMap(afterId, false).values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(report);
+        }
+        return page;
+    }
+
+    public int count(boolean archived) {
+        return counterFor(archived).get();
+    }
+
+    public int totalCount() {
+        return openCount.get() + archivedCount.get();
+    }
+
+    private @NotNull ConcurrentSkipListMap<Integer, BugReport> byState(boolean archived) {
+        return archived ? archivedReports : openReports;
+    }
+
+    /**
+     * @return at most {@code limit} reports, newest first.
+     */
+    public @NotNull List<BugReport> latest(int limit) {
+        List<BugReport> latest = new ArrayList<>(limit);
+        for (BugReport report : reports.descendingMap().values()) {
+            if (latest.size() >= limit) {
+                break;
+            }
+            latest.add(report);
+        }
+        return latest;
+    }
+
+    public @NotNull PlayerReportCounts getPlayerCounts(@NotNull UUID playerId) {
+        return playerCounts.getOrDefault(playerId, PlayerReportCounts.EMPTY);
+    }
+
+    private @NotNull AtomicInteger counterFor(boolean archived) {
+        return archived ? archivedCount : openCount;
+    }
+
+    private void adjustPlayerCounts(@NotNull BugReport report, int delta) {
+        playerCounts.compute(report.playerId(), (playerId, counts) -> {
+            PlayerReportCounts current = counts != null ? counts : PlayerReportCounts.EMPTY;
+            int total = current.total() + delta;
+            int archived = current.archived() + (report.archived() ? delta : 0);
+            return total > 0 ? new PlayerReportCounts(total, archived) : null;
+        });
+    }
+
+    public int size() {
+        return totalCount();
+    }
+
+    public boolean isEmpty() {
+        return reports.isEmpty();
+    }
+
+    public synchronized void clear() {
+        reports.clear();
+        openReports.clear();
+        archivedReports.clear();
+        openCount.set(0);
+        archivedCount.set(0);
+        playerCounts.clear();
+    }
+
+    /**
+     * @return a snapshot of all cached reports in ascending report ID order.
+     */
+    public @NotNull List<BugReport> getAll() {
+        return new ArrayList<>(reports.values());
+    }
+
+    public @NotNull List<BugReport> filter(@NotNull Predicate<BugReport> predicate) {
+        List<BugReport> matching = new ArrayList<>();
+        for (BugReport report : reports.values()) {
+            if (predicate.test(report)) {
+                matching.add(report);
+            }
+        }
+        return matching;
+    }
+
+    public long count(@NotNull Predicate<BugReport> predicate) {
+        long count = 0;
+        for (BugReport report : reports.values()) {
+            if (predicate.test(report)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long countForPlayer(@NotNull UUID playerId) {
+        return getPlayerCounts(playerId).total();
+    }
+}
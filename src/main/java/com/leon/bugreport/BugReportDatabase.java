@@ -1,7 +1,6 @@
 package com.leon.bugreport;
 
 import com.leon.bugreport.extensions.BugReportPair;
-import com.leon.bugreport.extensions.PlanHook;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.bukkit.Bukkit;
@@ -15,60 +14,191 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static com.leon.bugreport.BugReportManager.*;
 
 public class BugReportDatabase {
+    private static final int EXECUTOR_QUEUE_SIZE = 1024;
+    private static final long EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS = 10;
+
     public static HikariDataSource dataSource;
+    private static ThreadPoolExecutor executor;
+    private static final Set<CompletableFuture<?>> pendingWrites = ConcurrentHashMap.newKeySet();
 
     public BugReportDatabase() {
         createConnection();
+        createExecutor();
+        BugReportMigrations.migrate();
+    }
 
-        addColumnIfNotExists("player_data", "player_id", "TEXT, last_login_timestamp BIGINT DEFAULT 0");
-        addColumnIfNotExists("bug_reports", "archived",  "INTEGER DEFAULT 0");
-        addColumnIfNotExists("bug_reports", "report_id", "INT AUTO_INCREMENT PRIMARY KEY");
-        addColumnIfNotExists("bug_reports", "location",  "TEXT");
-        addColumnIfNotExists("bug_reports", "gamemode",  "TEXT");
+    static boolean isMySQL() {
+        return config.getString("databaseType", "local").equalsIgnoreCase("mysql");
+    }
 
-        fixReportID();
-        makeAllHeadersEqualReport_ID();
-        addTimestampColumn();
+    private static @NotNull String getReportIDColumnDefinition() {
+        return isMySQL() ? "report_id INT NOT NULL AUTO_INCREMENT PRIMARY KEY" : "report_id INTEGER PRIMARY KEY AUTOINCREMENT";
     }
 
-    private static void addTimestampColumn() {
-        try (Connection connection = dataSource.getConnection()) {
-            try (ResultSet archivedResultSet = connection.getMetaData().getColumns(null, null, "player_data", "last_login_timestamp")) {
-                if (!archivedResultSet.next()) {
-                    connection.createStatement().execute("ALTER TABLE player_data ADD COLUMN last_login_timestamp BIGINT DEFAULT 0");
-                }
-            }
-            try (ResultSet archivedResultSet = connection.getMetaData().getColumns(null, null, "bug_reports", "timestamp")) {
-                if (!archivedResultSet.next()) {
-                    connection.createStatement().execute("ALTER TABLE bug_reports ADD COLUMN timestamp BIGINT");
-                }
+    /**
+     * The columns of {@code bug_reports}, shared by {@link #createTables()} and the migrations that
+     * rebuild the table so that they always create the same one.
+     */
+    static @NotNull String getBugReportsColumnDefinitions() {
+        return getReportIDColumnDefinition() + ", player_id TEXT, header TEXT, message TEXT, username TEXT, world TEXT, archived INTEGER DEFAULT 0, timestamp BIGINT, location TEXT, gamemode TEXT, player_texture TEXT";
+    }
+
+    /**
+     * Creates the executor that all asynchronous database calls run on. SQLite only allows a single
+     * writer, so the local backend gets one thread; MySQL gets a small pool. The queue is bounded so
+     * that a stalled database cannot grow memory without limit. When it is full the task is rejected
+     * and its future fails, so database work never runs on the submitting thread, which is usually
+     * the server thread.
+     */
+    private static void createExecutor() {
+        int threads = isMySQL() ? 4 : 1;
+        AtomicInteger threadCount = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(EXECUTOR_QUEUE_SIZE),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "BugReport-Database-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Waits for queued database work to finish. Must be called before the data source is closed.
+     */
+    public static void shutdownExecutor() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for pending database tasks, " + executor.shutdownNow().size() + " tasks were dropped.");
             }
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to add missing columns.");
-            plugin.getLogger().severe(e.getMessage());
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
 
-    public static void setPlayerLastLoginTimestamp(UUID playerId) {
-        try (Connection connection = dataSource.getConnection()) {
-            if (getPlayerLastLoginTimestamp(playerId) == 0) {
-                PreparedStatement playerDataStatement = connection.prepareStatement("INSERT INTO player_data(player_id, last_login_timestamp) VALUES(?, ?)");
-                playerDataStatement.setString(1, playerId.toString());
-                playerDataStatement.setLong(2, System.currentTimeMillis());
-                playerDataStatement.executeUpdate();
-                playerDataStatement.close();
-            } else {
-                PreparedStatement playerDataStatement = connection.prepareStatement("UPDATE player_data SET last_login_timestamp = ? WHERE player_id = ?");
-                playerDataStatement.setLong(1, System.currentTimeMillis());
-                playerDataStatement.setString(2, playerId.toString());
-                playerDataStatement.executeUpdate();
-                playerDataStatement.close();
+    public static <T> @NotNull CompletableFuture<T> supplyAsync(@NotNull Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return rejected(e);
+        }
+    }
+
+    public static @NotNull CompletableFuture<Void> runAsync(@NotNull Runnable runnable) {
+        try {
+            return CompletableFuture.runAsync(runnable, executor);
+        } catch (RejectedExecutionException e) {
+            return rejected(e);
+        }
+    }
+
+    private static <T> @NotNull CompletableFuture<T> rejected(@NotNull RejectedExecutionException e) {
+        if (executor.isShutdown()) {
+            plugin.getLogger().warning("A database task was submitted after shutdown and was dropped.");
+        } else {
+            plugin.getLogger().warning("The database queue is full (" + EXECUTOR_QUEUE_SIZE + " tasks), a database task was dropped. Is the database responding?");
+        }
+        return CompletableFuture.failedFuture(e);
+    }
+
+    /**
+     * Executor that hands work back to the server thread, for use with the {@code *Async} methods
+     * of {@link CompletableFuture} when the result touches the Bukkit API.
+     */
+    public static @NotNull Executor mainThread() {
+        return runnable -> {
+            if (Bukkit.isPrimaryThread()) {
+                runnable.run();
+            } else if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, runnable);
             }
+        };
+    }
+
+    public static @NotNull CompletableFuture<Void> setPlayerLastLoginTimestampAsync(UUID playerId) {
+        return runAsync(() -> setPlayerLastLoginTimestamp(playerId));
+    }
+
+    public static @NotNull CompletableFuture<Long> getPlayerLastLoginTimestampAsync(UUID playerId) {
+        return supplyAsync(() -> getPlayerLastLoginTimestamp(playerId));
+    }
+
+    public static @NotNull CompletableFuture<Location> getBugReportLocationAsync(Integer reportIDGUI) {
+        return supplyAsync(() -> getBugReportLocation(reportIDGUI));
+    }
+
+    public @NotNull CompletableFuture<Integer> addBugReportAsync(@NotNull BugReport report) {
+        return trackWrite(supplyAsync(() -> addBugReport(report)));
+    }
+
+    public static @NotNull CompletableFuture<Boolean> updateBugReportArchiveAsync(int reportIndex, int archived) {
+        return trackWrite(supplyAsync(() -> updateBugReportArchive(reportIndex, archived)));
+    }
+
+    public static @NotNull CompletableFuture<Boolean> deleteBugReportAsync(int reportIndex) {
+        return trackWrite(supplyAsync(() -> deleteBugReport(reportIndex)));
+    }
+
+    private static <T> @NotNull CompletableFuture<T> trackWrite(@NotNull CompletableFuture<T> write) {
+        pendingWrites.add(write);
+        write.whenComplete((result, error) -> pendingWrites.remove(write));
+        return write;
+    }
+
+    /**
+     * Loads every report once the report writes submitted before this call have finished, so the
+     * result never misses a change the cache already has. With more than one database thread those
+     * writes could otherwise still be running when the table is read. The future fails if the
+     * table cannot be read.
+     */
+    public static @NotNull CompletableFuture<List<BugReport>> loadBugReportsAsync() {
+        CompletableFuture<?>[] writes = pendingWrites.toArray(new CompletableFuture<?>[0]);
+        return CompletableFuture.allOf(writes)
+                .handle((result, error) -> null)
+                .thenCompose(ignored -> supplyAsync(() -> {
+                    try {
+                        return loadBugReports();
+                    } catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                }));
+    }
+
+    /**
+     * Records a login with a single upsert on the unique {@code player_id} index, so two logins of
+     * a new player on different database threads cannot both try to insert the row.
+     */
+    public static void setPlayerLastLoginTimestamp(UUID playerId) {
+        String upsert = isMySQL()
+                ? "INSERT INTO player_data(player_id, last_login_timestamp) VALUES(?, ?) ON DUPLICATE KEY UPDATE last_login_timestamp = VALUES(last_login_timestamp)"
+                : "INSERT INTO player_data(player_id, last_login_timestamp) VALUES(?, ?) ON CONFLICT(player_id) DO UPDATE SET last_login_timestamp = excluded.last_login_timestamp";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(upsert)) {
+            statement.setString(1, playerId.toString());
+            statement.setLong(2, System.currentTimeMillis());
+            statement.executeUpdate();
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to set player last login timestamp.");
             plugin.getLogger().severe(e.getMessage());
@@ -116,69 +246,6 @@ public class BugReportDatabase {
         return null;
     }
 
-    private void addColumnIfNotExists(String tableName, String columnName, String columnDefinition) {
-        try (Connection connection = dataSource.getConnection()) {
-            try (ResultSet resultSet = connection.getMetaData().getColumns(null, null, tableName, columnName)) {
-                if (!resultSet.next()) {
-                    String query = String.format("ALTER TABLE %s ADD COLUMN %s %s", tableName, columnName, columnDefinition);
-                    connection.createStatement().execute(query);
-                }
-            }
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to add missing columns.");
-            plugin.getLogger().severe(e.getMessage());
-        }
-    }
-
-    private void makeAllHeadersEqualReport_ID() {
-        try (Connection connection = dataSource.getConnection()) {
-            ResultSet resultSet = connection.createStatement().executeQuery("SELECT * FROM bug_reports");
-            while (resultSet.next()) {
-                int report_id = resultSet.getInt("report_id");
-                String header = resultSet.getString("header");
-                String[] lines = header.split("\n");
-                StringBuilder newHeader = new StringBuilder();
-                for (String line : lines) {
-                    if (line.startsWith("Report ID:")) {
-                        newHeader.append("Report ID: ").append(report_id);
-                    } else {
-                        newHeader.append(line);
-                    }
-                    newHeader.append("\n");
-                }
-                PreparedStatement statement = connection.prepareStatement("UPDATE bug_reports SET header = ? WHERE report_id = ?");
-                statement.setString(1, newHeader.toString().trim());
-                statement.setInt(2, report_id);
-                statement.executeUpdate();
-                statement.close();
-            }
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to make all headers equal report_id.");
-            plugin.getLogger().severe(e.getMessage());
-        }
-    }
-
-    private void fixReportID() {
-        try (Connection connection = dataSource.getConnection()) {
-            ResultSet resultSet = connection.createStatement().executeQuery("SELECT * FROM bug_reports WHERE report_id IS NULL OR report_id = 0");
-            while (resultSet.next()) {
-                int report_id = resultSet.getInt("report_id");
-                int rowNumber = resultSet.getRow();
-                if (report_id != rowNumber) {
-                    PreparedStatement statement = connection.prepareStatement("UPDATE bug_reports SET report_id = ? WHERE report_id = ?");
-                    statement.setInt(1, rowNumber);
-                    statement.setInt(2, report_id);
-                    statement.executeUpdate();
-                    statement.close();
-                }
-            }
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to fix report_id.");
-            plugin.getLogger().severe(e.getMessage());
-        }
-
-    }
-
     public static void createConnection() {
         loadConfig();
         String databaseType = Objects.requireNonNull(config.getString("databaseType"));
@@ -186,7 +253,7 @@ public class BugReportDatabase {
 
         if (databaseType.equalsIgnoreCase("local")) {
             plugin.getLogger().info("Connecting to local database");
-            connectLocal();
+            connectLocal(databaseSection.getConfigurationSection("sqlite"));
         } else if (databaseType.equalsIgnoreCase("mysql")) {
             plugin.getLogger().info("Connecting to remote database");
 
@@ -202,128 +269,59 @@ public class BugReportDatabase {
         }
     }
 
-    public void addBugReport(String username, @NotNull UUID playerId, String world, String header, String fullMessage, String location, String gamemode) {
-        try (Connection connection = dataSource.getConnection()) {
-            PreparedStatement statement = connection.prepareStatement("INSERT INTO bug_reports(player_id, header, message, username, world, archived, report_id, timestamp, location, gamemode) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-            int report_id = 1;
-            ResultSet resultSet = connection.createStatement().executeQuery("SELECT report_id FROM bug_reports ORDER BY report_id DESC LIMIT 1");
-            if (resultSet.next()) {
-                report_id = resultSet.getInt("report_id") + 1;
-            }
-            statement.setString(1, playerId.toString());
-            statement.setString(2, header);
-            statement.setString(3, fullMessage);
-            statement.setString(4, username);
-            statement.setString(5, world);
-            statement.setInt(6, 0);
-            statement.setInt(7, report_id);
-            statement.setLong(8, System.currentTimeMillis());
-            statement.setString(9, location);
-            statement.setString(10, gamemode);
-
-            if (Bukkit.getPluginManager().isPluginEnabled("Plan")) {
-                PlanHook.getInstance().updateHook(playerId, username);
-            }
-
-            statement.executeUpdate();
-            statement.close();
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to add bug report.");
-            plugin.getLogger().severe(e.getMessage());
-        }
-    }
-
-    public static long loadBugReportCountForPlayer(@NotNull UUID playerID) {
-        int count = 0;
-
-        try (Connection connection = dataSource.getConnection()) {
-            PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM bug_reports WHERE player_id = ?");
-            statement.setString(1, playerID.toString());
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                count = resultSet.getInt(1);
-            }
-            resultSet.close();
-            statement.close();
-        } catch (SQLException e) {
-            plugin.getLogger().severe(e.getMessage());
-        }
-
-        return count;
-    }
-
-    public static long loadArchivedBugReportCountForPlayer(@NotNull UUID playerID) {
-        int count = 0;
-
-        try (Connection connection = dataSource.getConnection()) {
-            PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM bug_reports WHERE player_id = ? AND archived = 1");
-            statement.setString(1, playerID.toString());
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                count = resultSet.getInt(1);
-            }
-            resultSet.close();
-            statement.close();
-        } catch (SQLException e) {
-            plugin.getLogger().severe(e.getMessage());
-        }
-
-        return count;
-    }
-
-    public static long loadNonArchivedBugReportCountForPlayer(@NotNull UUID playerID) {
-        int count = 0;
-
-        try (Connection connection = dataSource.getConnection()) {
-            PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM bug_reports WHERE player_id = ? AND archived = 0");
-            statement.setString(1, playerID.toString());
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                count = resultSet.getInt(1);
-            }
-            resultSet.close();
-            statement.close();
-        } catch (SQLException e) {
-            plugin.getLogger().severe(e.getMessage());
-        }
-
-        return count;
-    }
-
-    public static long loadBugReportCount() {
-        int count = 0;
-
+    /**
+     * Inserts a report and lets the database assign its ID.
+     *
+     * @return the generated report ID, or -1 if the report could not be saved.
+     */
+    public int addBugReport(@NotNull BugReport report) {
         try (Connection connection = dataSource.getConnection()) {
-            PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM bug_reports");
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                count = resultSet.getInt(1);
-            }
-            resultSet.close();
-            statement.close();
-        } catch (SQLException e) {
-            plugin.getLogger().severe(e.getMessage());
-        }
+            // The legacy header embeds the report ID, which is only known once the row exists. The
+            // insert and the header update share a transaction, so no report is ever stored with
+            // the placeholder ID in its header.
+            connection.setAutoCommit(false);
+            try {
+                int reportID;
+                try (PreparedStatement statement = connection.prepareStatement("INSERT INTO bug_reports(player_id, header, message, username, world, archived, timestamp, location, gamemode, player_texture) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+                    statement.setString(1, report.playerId().toString());
+                    statement.setString(2, report.toHeader());
+                    statement.setString(3, report.message());
+                    statement.setString(4, report.username());
+                    statement.setString(5, report.world());
+                    statement.setInt(6, report.archived() ? 1 : 0);
+                    statement.setLong(7, report.timestamp());
+                    statement.setString(8, report.location() != null ? report.location().serialize() : null);
+                    statement.setString(9, report.gamemode());
+                    statement.setString(10, report.playerTexture());
+                    statement.executeUpdate();
 
-        return count;
-    }
+                    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("The database did not return a generated report_id.");
+                        }
+                        reportID = generatedKeys.getInt(1);
+                    }
+                }
 
-    public static @NotNull List<BugReportPair<String, String>> loadBugReportCountsPerPlayer() {
-        List<BugReportPair<String, String>> reports = new ArrayList<>();
-        try (Connection connection = dataSource.getConnection()) {
-            String sql = "SELECT username, message FROM bug_reports";
-            try (PreparedStatement statement = connection.prepareStatement(sql);
-                 ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    String username = resultSet.getString("username");
-                    String message = resultSet.getString("message");
-                    reports.add(new BugReportPair<>(username, message));
+                try (PreparedStatement statement = connection.prepareStatement("UPDATE bug_reports SET header = ? WHERE report_id = ?")) {
+                    statement.setString(1, report.withId(reportID).toHeader());
+                    statement.setInt(2, reportID);
+                    statement.executeUpdate();
                 }
+
+                connection.commit();
+                return reportID;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
-        } catch (SQLException e) {
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to add bug report.");
             plugin.getLogger().severe(e.getMessage());
+            return -1;
         }
-        return reports;
     }
 
     public static @NotNull List<BugReportPair<String, String>> loadBugReportAllPlayer(String playerName) {
@@ -345,100 +343,59 @@ public class BugReportDatabase {
         return reports;
     }
 
-    public static long loadArchivedBugReportCount() {
-        int count = 0;
-
-        try (Connection connection = dataSource.getConnection()) {
-            PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM bug_reports WHERE archived = 1");
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                count = resultSet.getInt(1);
-                resultSet.close();
-                statement.close();
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe(e.getMessage());
-        }
-
-        return count;
-    }
-
-    public static long loadNonArchivedBugReportCount() {
-        int count = 0;
-
-        try (Connection connection = dataSource.getConnection()) {
-            PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM bug_reports WHERE archived = 0");
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                count = resultSet.getInt(1);
-                resultSet.close();
-                statement.close();
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe(e.getMessage());
-        }
-
-        return count;
-    }
-
-    public static @NotNull Map<UUID, List<String>> loadBugReports() {
-        Map<UUID, List<String>> bugReports = new HashMap<>();
+    /**
+     * @throws SQLException if the table cannot be read, so that callers keep the reports they
+     *                      already have instead of replacing them with a partial list.
+     */
+    public static @NotNull List<BugReport> loadBugReports() throws SQLException {
+        List<BugReport> bugReports = new ArrayList<>();
 
         try (Connection connection = dataSource.getConnection()) {
             PreparedStatement statement = connection.prepareStatement("SELECT * FROM bug_reports ORDER BY report_id ASC");
             ResultSet resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
-                UUID playerId = UUID.fromString(resultSet.getString("player_id"));
-                String header = resultSet.getString("header");
-                String fullMessage = resultSet.getString("message");
-                String username = resultSet.getString("username");
-                String world = resultSet.getString("world");
-                String archived = resultSet.getString("archived");
-                String report_id = resultSet.getString("report_id");
-                long timestamp = resultSet.getLong("timestamp");
-                String location = resultSet.getString("location");
-                String gamemode = resultSet.getString("gamemode");
-
-                List<String> reports = bugReports.getOrDefault(getStaticUUID(), new ArrayList<>(Collections.singletonList("DUMMY")));
-                reports.add(
-                    "Username: " + username + "\n" +
-                    "UUID: " + playerId + "\n" +
-                    "World: " + world + "\n" +
-                    "Full Message: " + fullMessage + "\n" +
-                    "Header: " + header + "\n" +
-                    "Archived: " + archived + "\n" +
-                    "Report ID: " + report_id + "\n" +
-                    "Timestamp: " + timestamp + "\n" +
-                    "Location: " + location + "\n" +
-                    "Gamemode: " + gamemode
-                );
-
-                if (Bukkit.getPluginManager().isPluginEnabled("Plan")) {
-                    PlanHook.getInstance().updateHook(playerId, username);
-                }
-
-                bugReports.put(getStaticUUID(), reports);
+                BugReport report = readBugReport(resultSet);
+                bugReports.add(report);
             }
 
             resultSet.close();
             statement.close();
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to load bug reports.");
-            if (e.getMessage().startsWith("[SQLITE_CORRUPT]")) {
-                plugin.getLogger().severe("Your database is corrupted. Please delete the database file and restart the server.");
-                plugin.getLogger().severe("File path: plugins/BugReport/bugreports.db");
-                plugin.getLogger().severe("If you need help, please join the discord server: https://discord.gg/ZvdNYqmsbx");
-            } else {
-                plugin.getLogger().severe(e.getMessage());
-            }
         }
 
         return bugReports;
     }
 
-    public static @NotNull UUID getStaticUUID() {
-        return UUID.fromString("00000000-0000-0000-0000-000000000000");
+    public static void logLoadFailure(@NotNull Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = String.valueOf(cause.getMessage());
+
+        plugin.getLogger().severe("Failed to load bug reports.");
+        if (message.startsWith("[SQLITE_CORRUPT]")) {
+            plugin.getLogger().severe("Your database is corrupted. Please delete the database file and restart the server.");
+            plugin.getLogger().severe("File path: plugins/BugReport/bugreports.db");
+            plugin.getLogger().severe("If you need help, please join the discord server: https://discord.gg/ZvdNYqmsbx");
+        } else {
+            plugin.getLogger().severe(message);
+        }
+    }
+
+    private static @NotNull BugReport readBugReport(@NotNull ResultSet resultSet) throws SQLException {
+        String header = resultSet.getString("header");
+
+        return new BugReport(
+                resultSet.getInt("report_id"),
+                UUID.fromString(resultSet.getString("player_id")),
+                resultSet.getString("username"),
+                resultSet.getString("world"),
+                BugReport.parseCategoryId(BugReport.headerValue(header, "Category ID")),
+                resultSet.getString("message"),
+                resultSet.getInt("archived") == 1,
+                resultSet.getLong("timestamp"),
+                BugReport.ReportLocation.parse(resultSet.getString("location")),
+                resultSet.getString("gamemode"),
+                resultSet.getString("player_texture")
+        );
     }
 
     private static void connectRemote(String host, Integer port, String database, String username, String password) {
@@ -457,11 +414,30 @@ public class BugReportDatabase {
         createTables();
     }
 
-    private static void connectLocal() {
+    /**
+     * Opens the local SQLite database with the pragmas from {@code database.sqlite} in the config.
+     * WAL lets readers keep working while a report is written, and {@code synchronous=NORMAL} only
+     * syncs at checkpoints instead of on every commit. Every pooled connection is configured the
+     * same way, so the pragmas apply no matter which connection a query gets. The asynchronous
+     * methods run on the single SQLite database thread (see {@link #createExecutor()}), so they
+     * never compete with each other for the write lock. SQLite still only serializes the other
+     * writers, such as the migrations on startup, a direct call to one of the blocking methods or
+     * another process opening the file, and the busy timeout is how long they wait for the lock.
+     */
+    private static void connectLocal(@Nullable ConfigurationSection sqliteSection) {
         try {
             File databaseFile = new File("plugins/BugReport/bugreports.db");
             HikariConfig hikariConfig = new HikariConfig();
             hikariConfig.setJdbcUrl("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+
+            int busyTimeout = getSQLiteSetting(sqliteSection, "busy-timeout", 5000);
+            hikariConfig.addDataSourceProperty("journal_mode", getSQLiteSetting(sqliteSection, "journal-mode", "WAL"));
+            hikariConfig.addDataSourceProperty("synchronous", getSQLiteSetting(sqliteSection, "synchronous", "NORMAL"));
+            hikariConfig.addDataSourceProperty("mmap_size", String.valueOf(getSQLiteSetting(sqliteSection, "mmap-size", 268435456L)));
+            hikariConfig.addDataSourceProperty("cache_size", String.valueOf(getSQLiteSetting(sqliteSection, "cache-size", -16000)));
+            hikariConfig.addDataSourceProperty("busy_timeout", String.valueOf(busyTimeout));
+            hikariConfig.setMaximumPoolSize(Math.max(1, getSQLiteSetting(sqliteSection, "pool-size", 4)));
+            hikariConfig.setConnectionTimeout(busyTimeout + 5000L);
             dataSource = new HikariDataSource(hikariConfig);
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to connect to local database.");
@@ -472,9 +448,21 @@ public class BugReportDatabase {
         createTables();
     }
 
+    private static @NotNull String getSQLiteSetting(@Nullable ConfigurationSection sqliteSection, String key, String defaultValue) {
+        return sqliteSection != null ? sqliteSection.getString(key, defaultValue) : defaultValue;
+    }
+
+    private static int getSQLiteSetting(@Nullable ConfigurationSection sqliteSection, String key, int defaultValue) {
+        return sqliteSection != null ? sqliteSection.getInt(key, defaultValue) : defaultValue;
+    }
+
+    private static long getSQLiteSetting(@Nullable ConfigurationSection sqliteSection, String key, long defaultValue) {
+        return sqliteSection != null ? sqliteSection.getLong(key, defaultValue) : defaultValue;
+    }
+
     private static void createTables() {
         try (Connection connection = dataSource.getConnection()) {
-            connection.createStatement().execute("CREATE TABLE IF NOT EXISTS bug_reports(rowid INTEGER, player_id TEXT, header TEXT, message TEXT, username TEXT, world TEXT, archived INTEGER DEFAULT 0, report_id INTEGER, timestamp BIGINT)");
+            connection.createStatement().execute("CREATE TABLE IF NOT EXISTS bug_reports(" + getBugReportsColumnDefinitions() + ")");
             connection.createStatement().execute("CREATE TABLE IF NOT EXISTS player_data(player_id TEXT, last_login_timestamp BIGINT DEFAULT 0)");
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to create tables.");
@@ -482,51 +470,38 @@ public class BugReportDatabase {
         }
     }
 
-    public static void updateBugReportArchive(int reportIndex, int archived) {
+    /**
+     * @return false if the change could not be saved.
+     */
+    public static boolean updateBugReportArchive(int reportIndex, int archived) {
         try (Connection connection = dataSource.getConnection()) {
             PreparedStatement statement = connection.prepareStatement("UPDATE bug_reports SET archived = ? WHERE report_id = ?");
             statement.setInt(1, archived);
             statement.setInt(2, reportIndex);
             statement.executeUpdate();
             statement.close();
-            loadBugReports();
-
-            List<String> reports = bugReports.getOrDefault(getStaticUUID(), new ArrayList<>(Collections.singletonList("DUMMY")));
-            String existingHeader = reports.stream()
-                .filter(reportString -> reportString.contains("Report ID: " + reportIndex))
-                .findFirst()
-                .orElse(null);
-            int existingHeaderPosition = reports.indexOf(existingHeader);
-
-            String[] lines = existingHeader != null ? existingHeader.split("\n") : new String[0];
-            StringBuilder newHeader = new StringBuilder();
-            for (String line : lines) {
-                if (line.startsWith("Archived:")) {
-                    newHeader.append("Archived: ").append(archived);
-                } else {
-                    newHeader.append(line);
-                }
-                newHeader.append("\n");
-            }
-            reports.set(existingHeaderPosition, newHeader.toString().trim());
-            bugReports.put(getStaticUUID(), reports);
+            return true;
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to update bug report archive status.");
             plugin.getLogger().severe(e.getMessage());
+            return false;
         }
     }
 
-    public static void deleteBugReport(int reportIndex) {
+    /**
+     * @return false if the report could not be deleted.
+     */
+    public static boolean deleteBugReport(int reportIndex) {
         try (Connection connection = dataSource.getConnection()) {
             PreparedStatement statement = connection.prepareStatement("DELETE FROM bug_reports WHERE report_id = ?");
             statement.setInt(1, reportIndex);
             statement.executeUpdate();
             statement.close();
-
-            loadBugReports();
+            return true;
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to delete bug report.");
             plugin.getLogger().severe(e.getMessage());
+            return false;
         }
     }
 }
@@ -1,7 +1,9 @@
 package com.leon.bugreport;
 
+import com.leon.bugreport.API.DataSource;
 import com.leon.bugreport.discord.LinkDiscord;
 import com.leon.bugreport.extensions.PlanHook;
+import com.leon.bugreport.gui.GUIHolder;
 import com.leon.bugreport.listeners.ReportCreatedEvent;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -12,30 +14,33 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
-import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.metadata.FixedMetadataValue;
+import org.bukkit.metadata.MetadataValue;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static com.leon.bugreport.API.DataSource.getPlayerHead;
-import static com.leon.bugreport.BugReportDatabase.getStaticUUID;
 import static com.leon.bugreport.BugReportSettings.getSettingsGUI;
 import static com.leon.bugreport.commands.BugReportCommand.stringColorToColorCode;
 import static com.leon.bugreport.gui.bugreportGUI.openBugReportDetailsGUI;
 
 public class BugReportManager implements Listener {
-    public static Map<UUID, List<String>> bugReports;
+    private static final int REPORTS_PER_PAGE = 27;
+
+    public static BugReportCache bugReports;
     private static BugReportDatabase database;
     public static Plugin plugin;
 
@@ -53,7 +58,7 @@ public class BugReportManager implements Listener {
 
     public BugReportManager(Plugin plugin) throws Exception {
         BugReportManager.plugin = plugin;
-        bugReports = new HashMap<> ();
+        bugReports = new BugReportCache();
         database = new BugReportDatabase();
 
         loadBugReports();
@@ -116,6 +121,11 @@ public class BugReportManager implements Listener {
                 put("discordEnableThumbnail", true);
                 put("discordEnableUserAuthor", true);
                 put("discordIncludeDate", true);
+                put("discordBatchWindowSeconds", 2);
+                put("discordGlobalWebhooks", new ArrayList<String>());
+                put("discordDigestEnabled", false);
+                put("discordDigestInterval", 300);
+                put("discordDigestMaxReports", 50);
                 put("useTitleInsteadOfMessage", false);
                 put("enablePlayerHeads", true);
                 put("refreshPlayerHeadCache", "1d");
@@ -124,6 +134,12 @@ public class BugReportManager implements Listener {
                 put("report-confirmation-message", "Thanks for submitting a report!");
                 put("pluginColor", "Yellow");
                 put("pluginTitle", "[Bug Report]");
+                put("database.sqlite.journal-mode", "WAL");
+                put("database.sqlite.synchronous", "NORMAL");
+                put("database.sqlite.mmap-size", 268435456L);
+                put("database.sqlite.cache-size", -16000);
+                put("database.sqlite.busy-timeout", 5000);
+                put("database.sqlite.pool-size", 4);
             }
         };
 
@@ -160,7 +176,7 @@ public class BugReportManager implements Listener {
                 Objects.requireNonNull(itemMeta).setDisplayName(ChatColor.YELLOW + name);
                 itemMeta.setLore(Collections.singletonList(ChatColor.GRAY + description));
                 itemStack.setItemMeta(itemMeta);
-                categories.add(new Category(id, name, color, itemStack));
+                categories.add(new Category(id, name, color, itemStack, getStringList(categoryMap.get("webhooks"))));
             }
 
             return categories;
@@ -170,6 +186,35 @@ public class BugReportManager implements Listener {
         }
     }
 
+    /**
+     * Reads a config value that may be either a single string or a list of strings.
+     */
+    static @NotNull List<String> getStringList(@Nullable Object value) {
+        if (value instanceof List<?> list) {
+            List<String> strings = new ArrayList<>();
+            for (Object element : list) {
+                if (element != null && !element.toString().isBlank()) {
+                    strings.add(element.toString().trim());
+                }
+            }
+            return strings;
+        }
+        return value != null && !value.toString().isBlank() ? List.of(value.toString().trim()) : List.of();
+    }
+
+    private @Nullable Category getCategory(@Nullable Integer categoryId) {
+        if (categoryId == null || reportCategories == null) {
+            return null;
+        }
+
+        for (Category category : reportCategories) {
+            if (category.getId() == categoryId) {
+                return category;
+            }
+        }
+        return null;
+    }
+
     public List<Category> getReportCategories() {
         return reportCategories;
     }
@@ -190,45 +235,38 @@ public class BugReportManager implements Listener {
 
     public void submitBugReport(@NotNull Player player, String message, Integer categoryId) {
         UUID playerId = player.getUniqueId();
-        List<String> reports = bugReports.getOrDefault(getStaticUUID(), new ArrayList<>(Collections.singletonList("DUMMY")));
         String playerName = player.getName();
-        String playerUUID = playerId.toString();
         String worldName = player.getWorld().getName();
-        String location = player.getWorld().getName() + ", " + player.getLocation().getBlockX() + ", " + player.getLocation().getBlockY() + ", " + player.getLocation().getBlockZ();
         String gamemode = player.getGameMode().toString();
+        BugReport.ReportLocation location = BugReport.ReportLocation.of(player.getLocation());
+        String playerTexture = DataSource.capturePlayerTexture(player);
+
+        BugReport pendingReport = new BugReport(
+                0,
+                playerId,
+                playerName,
+                worldName,
+                categoryId,
+                message,
+                false,
+                System.currentTimeMillis(),
+                location,
+                gamemode,
+                playerTexture
+        );
+
+        database.addBugReportAsync(pendingReport).thenAcceptAsync(reportID -> {
+            if (reportID < 0) {
+                return;
+            }
+
+            BugReport report = pendingReport.withId(reportID);
+            bugReports.put(report);
+            markPlanDirty(report);
 
-        String reportID = reports.stream()
-            .filter(report -> report.contains("Report ID: "))
-            .reduce((first, second) -> second)
-            .map(report -> Arrays.stream(report.split("\n"))
-                .filter(line -> line.contains("Report ID:"))
-                .findFirst()
-                .orElse("Report ID: 0")
-            )
-            .map(reportIDLine -> reportIDLine.split(": ")[1].trim())
-            .orElse("0");
-
-        String reportIDInt = String.valueOf(Integer.parseInt(reportID) + 1);
-        String header = "Username: " + playerName + "\n" +
-                "UUID: " + playerUUID + "\n" +
-                "World: " + worldName + "\n" +
-                "hasBeenRead: 0" + "\n" +
-                "Category ID: " + categoryId + "\n" +
-                "Full Message: " + message + "\n" +
-                "Archived: 0" + "\n" +
-                "Report ID: " + reportIDInt + "\n" +
-                "Timestamp: " + System.currentTimeMillis() + "\n" +
-                "Location: " + location + "\n" +
-                "Gamemode: " + gamemode;
-
-        reports.add(header);
-        bugReports.put(playerId, reports);
-
-        if (Bukkit.getPluginManager().isPluginEnabled("Plan")) {
-            PlanHook.getInstance().updateHook(playerId, playerName);
-        }
-
-        database.addBugReport(playerName, playerId, worldName, header, message, location, gamemode);
+            ReportCreatedEvent reportEvent = new ReportCreatedEvent(report);
+            Bukkit.getServer().getPluginManager().callEvent(reportEvent);
+        }, BugReportDatabase.mainThread());
 
         if (config.getBoolean("enableBugReportNotifications", true)) {
             String defaultMessage = pluginColor + pluginTitle + " " + ChatColor.GRAY + DefaultLanguageSelector.getTextElseDefault(language, "bugReportNotificationMessage").replace("%player%", ChatColor.AQUA + playerName + ChatColor.GRAY);
@@ -241,81 +279,44 @@ public class BugReportManager implements Listener {
         }
 
         if (config.getBoolean("enableDiscordWebhook", true)) {
-            String webhookURL = config.getString("webhookURL", "");
-            if (webhookURL.isEmpty()) {
-                plugin.getLogger().warning(DefaultLanguageSelector.getTextElseDefault(language, "missingDiscordWebhookURLMessage"));
-            }
-
             try {
-                discord.sendBugReport(message, worldName, playerName, location, gamemode);
+                discord.sendBugReport(message, worldName, playerName, playerId, location.serialize(), gamemode, getCategory(categoryId));
             } catch (Exception e) {
                 plugin.getLogger().warning("Error sending bug report to Discord: " + e.getMessage());
             }
         }
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            ReportCreatedEvent reportEvent = new ReportCreatedEvent(header);
-            Bukkit.getServer().getPluginManager().callEvent(reportEvent);
-        });
     }
 
     public static @NotNull Inventory generateBugReportGUI(@NotNull Player player, boolean showArchived) {
-        loadBugReports();
-
-        int itemsPerPage = 27;
         int navigationRow = 36;
 
-        List<String> reports = bugReports.getOrDefault(getStaticUUID(), new ArrayList<>(Collections.singletonList("DUMMY")));
-
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            for (String report : reports) {
-                String[] reportLines = report.split("\n");
-                Map<String, String> reportData = new HashMap<>();
-                for (String line : reportLines) {
-                    int colonIndex = line.indexOf(":");
-                    if (colonIndex >= 0) {
-                        String key = line.substring(0, colonIndex).trim();
-                        String value = line.substring(colonIndex + 1).trim();
-                        reportData.put(key, value);
-                    }
-                }
-                String username = reportData.get("Username");
-                getPlayerHead(username);
-            }
-        });
+        int totalPages = getTotalPages(showArchived);
+        int currentPage = Math.max(1, Math.min(getCurrentPage(player), totalPages));
 
-        List<String> filteredReports = getFilteredReports(showArchived, reports);
+        List<Integer> pageCursors = getPageCursors(player, showArchived);
+        List<BugReport> pageReports = bugReports.page(showArchived, getPageCursor(pageCursors, showArchived, currentPage), REPORTS_PER_PAGE);
 
-        int totalPages = Math.max(1, (int) Math.ceil((double) filteredReports.size() / itemsPerPage));
-        int currentPage = Math.max(1, Math.min(getCurrentPage(player), totalPages));
+        // Keep the cursor that leads to the next page, anything past it may be stale.
+        pageCursors.subList(Math.min(currentPage, pageCursors.size()), pageCursors.size()).clear();
+        if (!pageReports.isEmpty() && pageCursors.size() == currentPage) {
+            pageCursors.add(pageReports.get(pageReports.size() - 1).id());
+        }
 
-        Inventory gui = Bukkit.createInventory(
-                null,
+        GUIHolder holder = new GUIHolder(showArchived ? GUIHolder.Type.ARCHIVED_REPORT_LIST : GUIHolder.Type.REPORT_LIST);
+        Inventory gui = holder.createInventory(
                 45,
                 ChatColor.YELLOW + (showArchived ? "Archived Bugs" : "Bug Report") + " - " + Objects.requireNonNull(BugReportLanguage.getTitleFromLanguage("pageInfo"))
                     .replace("%currentPage%", String.valueOf(currentPage))
                     .replace("%totalPages%", String.valueOf(totalPages)));
 
-        int startIndex = (currentPage - 1) * itemsPerPage;
-        int endIndex = Math.min(startIndex + itemsPerPage, filteredReports.size());
         int slotIndex = 0;
 
-        for (int i = startIndex; i < endIndex; i++) {
-            String report = filteredReports.get(i);
-            String reportID = getReportID(report);
-            String firstLine = report.split("\n")[0];
-
-            String username = firstLine.split(": ")[1];
-            ItemStack playerHead = getPlayerHead(username);
-
-            ItemStack reportItem = new ItemStack(playerHead);
+        for (BugReport report : pageReports) {
+            int slot = slotIndex;
+            ItemStack playerHead = getPlayerHead(report, loadedHead -> gui.setItem(slot, createReportItem(loadedHead, report)));
 
-            ItemMeta itemMeta = reportItem.getItemMeta();
-            Objects.requireNonNull(itemMeta).setDisplayName(ChatColor.YELLOW + "Bug Report #" + reportID);
-            itemMeta.setLore(Collections.singletonList(ChatColor.GRAY + firstLine));
-
-            reportItem.setItemMeta(itemMeta);
-
-            gui.setItem(slotIndex, reportItem);
+            gui.setItem(slot, createReportItem(playerHead, report));
+            holder.setAction(slot, clicker -> openBugReportDetailsGUI(clicker, bugReports.get(report.id()), report.id(), showArchived));
             slotIndex++;
         }
 
@@ -325,38 +326,46 @@ public class BugReportManager implements Listener {
             .replace("%currentPage%", String.valueOf(currentPage))
             .replace("%totalPages%", String.valueOf(totalPages)));
 
-        if (BugReportManager.getCurrentPage(player) == 1) {
+        if (currentPage == 1) {
             gui.setItem(36, new ItemStack(Material.AIR));
         } else {
             createNavigationButtons("back", gui, 36);
+            holder.setAction(36, clicker -> openPage(clicker, showArchived, currentPage - 1));
         }
-        if (BugReportManager.getCurrentPage(player) == BugReportManager.getTotalPages()) {
+        if (currentPage == totalPages) {
             gui.setItem(44, new ItemStack(Material.AIR));
         } else {
             createNavigationButtons("forward", gui, 44);
+            holder.setAction(44, clicker -> openPage(clicker, showArchived, currentPage + 1));
         }
 
         gui.setItem(navigationRow + 2, settingsButton);
         gui.setItem(navigationRow + 4, pageIndicator);
         gui.setItem(navigationRow + 6, closeButton);
 
+        holder.setAction(navigationRow + 2, clicker -> clicker.openInventory(getSettingsGUI()));
+        holder.setAction(navigationRow + 6, Player::closeInventory);
+
         return gui;
     }
 
-    private static String getReportID(String report) {
-        String[] reportLines = report.split("\n");
-
-        Map<String, String> reportData = new HashMap<>();
-        for (String line : reportLines) {
-            int colonIndex = line.indexOf(":");
-            if (colonIndex >= 0) {
-                String key = line.substring(0, colonIndex).trim();
-                String value = line.substring(colonIndex + 1).trim();
-                reportData.put(key, value);
-            }
+    private static void openPage(@NotNull Player player, boolean showArchived, int page) {
+        if (page < 1 || page > getTotalPages(showArchived)) {
+            return;
         }
+        setCurrentPage(player, page);
+        player.openInventory(generateBugReportGUI(player, showArchived));
+    }
+
+    private static @NotNull ItemStack createReportItem(@NotNull ItemStack playerHead, @NotNull BugReport report) {
+        ItemStack reportItem = new ItemStack(playerHead);
+
+        ItemMeta itemMeta = reportItem.getItemMeta();
+        Objects.requireNonNull(itemMeta).setDisplayName(ChatColor.YELLOW + "Bug Report #" + report.id());
+        itemMeta.setLore(Collections.singletonList(ChatColor.GRAY + "Username: " + report.username()));
 
-		return reportData.get("Report ID");
+        reportItem.setItemMeta(itemMeta);
+        return reportItem;
     }
 
     private static void createNavigationButtons(String forward, @NotNull Inventory bugReportGUI, int index) {
@@ -367,38 +376,6 @@ public class BugReportManager implements Listener {
         bugReportGUI.setItem(index, forwardButton);
     }
 
-    @NotNull
-    private static List<String> getFilteredReports(boolean showArchived, @NotNull List<String> reports) {
-        List<String> filteredReports = new ArrayList<>();
-        for (String report : reports) {
-            if ((showArchived && report.contains("Archived: 1")) || (!showArchived && !report.contains("DUMMY") && !report.contains("Archived: 1"))) {
-                filteredReports.add(report);
-            }
-        }
-
-        filteredReports.sort((r1, r2) -> {
-            int id1 = Integer.parseInt(extractReportIDFromReport(r1));
-            int id2 = Integer.parseInt(extractReportIDFromReport(r2));
-            return Integer.compare(id1, id2);
-        });
-        return filteredReports;
-    }
-
-    private static @NotNull String extractReportIDFromReport(@NotNull String report) {
-        String[] reportLines = report.split("\n");
-        for (String line : reportLines) {
-            int colonIndex = line.indexOf(":");
-            if (colonIndex >= 0) {
-                String key = line.substring(0, colonIndex).trim();
-                String value = line.substring(colonIndex + 1).trim();
-                if ("Report ID".equals(key)) {
-                    return value;
-                }
-            }
-        }
-        return "0";
-    }
-
     public static @NotNull Inventory getArchivedBugReportsGUI(Player player) {
         return generateBugReportGUI(player, true);
     }
@@ -415,103 +392,62 @@ public class BugReportManager implements Listener {
         return item;
     }
 
-    private static void loadBugReports() {
-        bugReports = BugReportDatabase.loadBugReports();
-    }
-
-    public static class BugReportListener implements Listener {
-        private final Map<UUID, Boolean> closingInventoryMap;
-
-        public BugReportListener() {
-            this.closingInventoryMap = new HashMap<>();
+    /**
+     * Replaces the cached reports with the current contents of the database. This is only needed
+     * on startup and when the table has been changed from outside the plugin.
+     */
+    public static void loadBugReports() {
+        try {
+            bugReports.replaceAll(BugReportDatabase.loadBugReports());
+        } catch (SQLException e) {
+            BugReportDatabase.logLoadFailure(e);
         }
+    }
 
-        @EventHandler(priority = EventPriority.NORMAL)
-        public void onInventoryClick(@NotNull InventoryClickEvent event) {
-            String TitleText = ChatColor.stripColor(event.getView().getTitle());
-
-            boolean isArchivedGUI = TitleText.startsWith("Archived Bugs");
+    /**
+     * Archives or unarchives a report. The cache is updated right away so the GUI can show the
+     * change, and is put back if the database write fails, so it never shows a state the table
+     * does not have.
+     */
+    public static void setBugReportArchived(int reportId, boolean archived) {
+        BugReport updated = bugReports.setArchived(reportId, archived);
+        markPlanDirty(updated);
 
-            if (!TitleText.startsWith("Bug Report") && !isArchivedGUI) {
+        BugReportDatabase.updateBugReportArchiveAsync(reportId, archived ? 1 : 0).whenCompleteAsync((saved, error) -> {
+            if (error == null && saved) {
                 return;
             }
 
-            event.setCancelled(true);
-
-            Player player = (Player) event.getWhoClicked();
-            Inventory clickedInventory = event.getClickedInventory();
-            if (clickedInventory == null) {
-                return;
+            BugReport current = bugReports.get(reportId);
+            if (current != null && current.archived() == archived) {
+                markPlanDirty(bugReports.setArchived(reportId, !archived));
             }
+        }, BugReportDatabase.mainThread());
+    }
 
-            ItemStack clickedItem = event.getCurrentItem();
-            if (clickedItem == null || clickedItem.getType() == Material.AIR) {
-                return;
-            }
+    /**
+     * Deletes a report. Like {@link #setBugReportArchived(int, boolean)}, the cache is updated
+     * right away and the report is put back if the database could not delete it.
+     */
+    public static void deleteBugReport(int reportId) {
+        BugReport removed = bugReports.remove(reportId);
+        markPlanDirty(removed);
 
-            ItemMeta itemMeta = clickedItem.getItemMeta();
-            if (itemMeta == null || !itemMeta.hasDisplayName()) {
+        BugReportDatabase.deleteBugReportAsync(reportId).whenCompleteAsync((deleted, error) -> {
+            if (error == null && deleted) {
                 return;
             }
 
-            String displayName = itemMeta.getDisplayName();
-            String customDisplayName = BugReportLanguage.getEnglishVersionFromLanguage(displayName);
-
-            switch (customDisplayName) {
-                case "Back" -> {
-                    int currentPage = getCurrentPage(player);
-                    if (currentPage > 1) {
-                        setCurrentPage(player, currentPage - 1);
-                        player.openInventory(isArchivedGUI ? getArchivedBugReportsGUI(player) : getBugReportGUI(player));
-                    }
-                }
-                case "Forward" -> {
-                    int currentPage = getCurrentPage(player);
-                    if (currentPage < getTotalPages()) {
-                        setCurrentPage(player, currentPage + 1);
-                        player.openInventory(isArchivedGUI ? getArchivedBugReportsGUI(player) : getBugReportGUI(player));
-                    }
-                }
-                case "Settings" -> player.openInventory(getSettingsGUI());
-                case "Close" -> {
-                    closingInventoryMap.put(player.getUniqueId(), true);
-                    player.closeInventory();
-                }
-            }
-            if (displayName.startsWith(ChatColor.YELLOW + "Bug Report #")) {
-                int reportID = Integer.parseInt(displayName.substring(14));
-                List<String> reports = bugReports.getOrDefault(getStaticUUID(), new ArrayList<>(Collections.singletonList("DUMMY")));
-                String report = reports.stream()
-                    .filter(reportString -> reportString.contains("Report ID: " + reportID))
-                    .findFirst()
-                    .orElse(null);
-
-                openBugReportDetailsGUI(player, report, reportID, isArchivedGUI);
-            }
-
-            if (customDisplayName.equals("Settings")) {
-                player.openInventory(getSettingsGUI());
-            }
-
-            if (customDisplayName.equals("Close")) {
-                closingInventoryMap.put(player.getUniqueId(), true);
-                player.closeInventory();
+            if (removed != null && bugReports.get(reportId) == null) {
+                bugReports.put(removed);
+                markPlanDirty(removed);
             }
-        }
-
-        @EventHandler(priority = EventPriority.NORMAL)
-        public void onInventoryClose(@NotNull InventoryCloseEvent event) {
-            if (event.getView().getTitle().startsWith(ChatColor.YELLOW + "Bug Report")) {
-                Player player = (Player) event.getPlayer();
-                UUID playerId = player.getUniqueId();
-
-                if (closingInventoryMap.getOrDefault(playerId, false)) {
-                    closingInventoryMap.put(playerId, false);
-                    return;
-                }
+        }, BugReportDatabase.mainThread());
+    }
 
-                closingInventoryMap.remove(playerId);
-            }
+    private static void markPlanDirty(@Nullable BugReport report) {
+        if (report != null && Bukkit.getPluginManager().isPluginEnabled("Plan")) {
+            PlanHook.getInstance().markDirty(report.playerId(), report.username());
         }
     }
 
@@ -519,13 +455,55 @@ public class BugReportManager implements Listener {
         return player.getMetadata("currentPage").get(0).asInt();
     }
 
-    public static int getTotalPages() {
-        List<String> reports = bugReports.getOrDefault(getStaticUUID(), new ArrayList<>(Collections.singletonList("DUMMY")));
-        return (int) Math.ceil((double) reports.size() / 27);
+    public static int getTotalPages(boolean showArchived) {
+        return Math.max(1, (int) Math.ceil((double) bugReports.count(showArchived) / REPORTS_PER_PAGE));
     }
 
     public static void setCurrentPage(@NotNull Player player, int page) {
         player.setMetadata("currentPage", new FixedMetadataValue (plugin, page));
+        if (page == 1) {
+            player.removeMetadata(getPageCursorsKey(false), plugin);
+            player.removeMetadata(getPageCursorsKey(true), plugin);
+        }
+    }
+
+    private static @NotNull String getPageCursorsKey(boolean showArchived) {
+        return showArchived ? "archivedPageCursors" : "pageCursors";
+    }
+
+    /**
+     * The list GUI pages with keyset pagination, so instead of an offset it remembers, per player and
+     * list, the last report ID shown on each page it has rendered. Entry {@code n} is the ID that
+     * page {@code n + 1} starts after; entry 0 is always 0.
+     */
+    @SuppressWarnings("unchecked")
+    private static @NotNull List<Integer> getPageCursors(@NotNull Player player, boolean showArchived) {
+        String key = getPageCursorsKey(showArchived);
+        for (MetadataValue value : player.getMetadata(key)) {
+            if (value.getOwningPlugin() == plugin && value.value() instanceof List<?> cursors) {
+                return (List<Integer>) cursors;
+            }
+        }
+
+        List<Integer> cursors = new ArrayList<>(List.of(0));
+        player.setMetadata(key, new FixedMetadataValue(plugin, cursors));
+        return cursors;
+    }
+
+    /**
+     * Returns the ID that the given page starts after. Pages the player has not rendered yet are
+     * reached by stepping forward from the last known cursor.
+     */
+    private static int getPageCursor(@NotNull List<Integer> pageCursors, boolean showArchived, int page) {
+        while (pageCursors.size() < page) {
+            List<BugReport> previousPage = bugReports.page(showArchived, pageCursors.get(pageCursors.size() - 1), REPORTS_PER_PAGE);
+            if (previousPage.isEmpty()) {
+                break;
+            }
+            pageCursors.add(previousPage.get(previousPage.size() - 1).id());
+        }
+
+        return pageCursors.get(Math.min(page, pageCursors.size()) - 1);
     }
 
     /**
@@ -581,88 +559,113 @@ public class BugReportManager implements Listener {
         };
     }
 
-    public record BugReportDetailsListener(Inventory gui, Integer reportIDGUI) implements Listener {
-        @EventHandler(priority = EventPriority.NORMAL)
-        public void onInventoryClick(@NotNull InventoryClickEvent event) {
-            String title = event.getView().getTitle();
-            boolean isArchivedDetails = title.startsWith(ChatColor.YELLOW + "Archived Bug Details");
-
-            if (!title.startsWith(ChatColor.YELLOW + "Bug Report Details - #") && !title.startsWith(ChatColor.YELLOW + "Archived Bug Details")) {
-                return;
-            }
+    /**
+     * Tracks the report details view each player has open. The listener is registered once, a
+     * player has at most one session, and the session ends when the view is closed or the player
+     * quits, so neither the handler list nor the registry grows with the number of views opened.
+     * <p>
+     * Archive, unarchive and delete end the session before they run, so a repeated click can never
+     * apply them twice or to a report from an earlier view.
+     */
+    public static class BugReportDetailsListener implements Listener {
+        private record Session(Inventory gui, int reportId, boolean archived) { }
 
-            event.setCancelled(true);
+        private static final Map<UUID, Session> sessions = new HashMap<>();
 
-            Player player = (Player) event.getWhoClicked();
-            UUID playerId = player.getUniqueId();
+        public static void open(@NotNull Player player, @NotNull Inventory gui, int reportId, boolean archived) {
+            // Set before opening, the close event of a previous details view must not end this session.
+            sessions.put(player.getUniqueId(), new Session(gui, reportId, archived));
+            player.openInventory(gui);
+        }
 
-            Inventory clickedInventory = event.getClickedInventory();
-            ItemStack clickedItem = event.getCurrentItem();
+        public static void back(@NotNull Player player) {
+            Session session = getSession(player);
+            if (session != null) {
+                player.openInventory(session.archived() ? getArchivedBugReportsGUI(player) : getBugReportGUI(player));
+            }
+        }
 
-            if (clickedInventory == null || clickedItem == null || clickedItem.getType() == Material.AIR) {
+        public static void setArchived(@NotNull Player player, boolean archived) {
+            Session session = endSession(player);
+            if (session == null) {
                 return;
             }
 
-            ItemMeta itemMeta = clickedItem.getItemMeta();
+            setBugReportArchived(session.reportId(), archived);
+
+            player.openInventory(session.archived() ? getArchivedBugReportsGUI(player) : getBugReportGUI(player));
+            player.sendMessage(ChatColor.YELLOW + "Bug Report #" + session.reportId() + (archived ? " has been archived." : " has been unarchived."));
+        }
 
-            if (itemMeta == null || !itemMeta.hasDisplayName() || itemMeta.getDisplayName().equals(" ")) {
+        public static void delete(@NotNull Player player) {
+            Session session = endSession(player);
+            if (session == null) {
                 return;
             }
 
-            String customDisplayName = BugReportLanguage.getEnglishVersionFromLanguage(itemMeta.getDisplayName());
+            deleteBugReport(session.reportId());
 
-            switch (customDisplayName) {
-                case "Back" -> player .openInventory(isArchivedDetails ? getArchivedBugReportsGUI(player) : getBugReportGUI(player));
-                case "Unarchive" -> {
-                    BugReportDatabase.updateBugReportArchive(reportIDGUI, 0);
+            player.openInventory(session.archived() ? getArchivedBugReportsGUI(player) : getBugReportGUI(player));
+            player.sendMessage(ChatColor.RED + "Bug Report #" + session.reportId() + " has been deleted.");
+        }
 
-                    player.openInventory(isArchivedDetails ? getArchivedBugReportsGUI(player) : getBugReportGUI(player));
-                    player.sendMessage(ChatColor.YELLOW + "Bug Report #" + reportIDGUI + " has been unarchived.");
+        public static void teleport(@NotNull Player player) {
+            Session session = getSession(player);
+            if (session == null) {
+                return;
+            }
 
-                    HandlerList.unregisterAll(this);
-                }
-                case "Archive" -> {
-                    // TODO: Something is causing both Archive and Delete to be called twice and delete the incorrect ID!
-                    BugReportDatabase.updateBugReportArchive(reportIDGUI, 1);
+            int reportId = session.reportId();
+            if (checkForKey("useTitleInsteadOfMessage", true)) {
+                player.sendTitle (pluginColor + pluginTitle, ChatColor.GREEN + "Teleporting to the location of Bug Report #" + reportId + "...", 10, 70, 20);
+            } else {
+                player.sendMessage(ChatColor.YELLOW + "Teleporting to the location of Bug Report #" + reportId + "...");
+            }
 
-                    player.openInventory(isArchivedDetails ? getArchivedBugReportsGUI(player) : getBugReportGUI(player));
-                    player.sendMessage(ChatColor.YELLOW + "Bug Report #" + reportIDGUI + " has been archived.");
+            BugReport report = bugReports.get(reportId);
+            CompletableFuture<Location> teleportLocation = report != null
+                ? CompletableFuture.completedFuture(report.location() != null ? report.location().toBukkitLocation() : null)
+                : BugReportDatabase.getBugReportLocationAsync(reportId);
 
-                    HandlerList.unregisterAll(this);
+            teleportLocation.thenAcceptAsync(location -> {
+                if (location != null) {
+                    player.teleport(location, PlayerTeleportEvent.TeleportCause.PLUGIN);
+                } else {
+                    player.sendMessage(ChatColor.RED + "The location of Bug Report #" + reportId + " is not available.");
                 }
-                case "Delete" -> {
-                    // TODO: Something is causing both Archive and Delete to be called twice and delete the incorrect ID!
-                    BugReportDatabase.deleteBugReport(reportIDGUI);
+            }, BugReportDatabase.mainThread());
+        }
 
-                    List<String> reports = bugReports.getOrDefault(getStaticUUID(), new ArrayList<>(Collections.singletonList("DUMMY")));
-                    reports.removeIf(report -> report.contains("Report ID: " + reportIDGUI));
-                    bugReports.put(playerId, reports);
+        /**
+         * Returns the player's session if the details view it belongs to is the one they have open.
+         */
+        private static @Nullable Session getSession(@NotNull Player player) {
+            Session session = sessions.get(player.getUniqueId());
+            if (session == null || player.getOpenInventory().getTopInventory() != session.gui()) {
+                return null;
+            }
+            return session;
+        }
 
-                    player.openInventory(isArchivedDetails ? getArchivedBugReportsGUI(player) : getBugReportGUI(player));
-                    player.sendMessage(ChatColor.RED + "Bug Report #" + reportIDGUI + " has been deleted.");
+        private static @Nullable Session endSession(@NotNull Player player) {
+            Session session = getSession(player);
+            if (session != null) {
+                sessions.remove(player.getUniqueId());
+            }
+            return session;
+        }
 
-                    HandlerList.unregisterAll(this);
-                }
-                case "Location (Click to teleport)" -> {
-                    if (checkForKey("useTitleInsteadOfMessage", true)) {
-                        player.sendTitle (pluginColor + pluginTitle, ChatColor.GREEN + "Teleporting to the location of Bug Report #" + reportIDGUI + "...", 10, 70, 20);
-                    } else {
-                        player.sendMessage(ChatColor.YELLOW + "Teleporting to the location of Bug Report #" + reportIDGUI + "...");
-                    }
-
-                    Location teleportLocation = BugReportDatabase.getBugReportLocation(reportIDGUI);
-                    if (teleportLocation != null) {
-                        player.teleport(teleportLocation, PlayerTeleportEvent.TeleportCause.PLUGIN);
-                    } else {
-                        player.sendMessage(ChatColor.RED + "The location of Bug Report #" + reportIDGUI + " is not available.");
-                    }
-                }
-                default -> {
-                    return;
-                }
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onInventoryClose(@NotNull InventoryCloseEvent event) {
+            Session session = sessions.get(event.getPlayer().getUniqueId());
+            if (session != null && session.gui() == event.getInventory()) {
+                sessions.remove(event.getPlayer().getUniqueId());
             }
+        }
 
-            HandlerList.unregisterAll(this);
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPlayerQuit(@NotNull PlayerQuitEvent event) {
+            sessions.remove(event.getPlayer().getUniqueId());
         }
     }
 
@@ -0,0 +1,363 @@
+package com.leon.bugreport;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.*;
+import java.util.*;
+
+import static com.leon.bugreport.BugReportDatabase.dataSource;
+import static com.leon.bugreport.BugReportDatabase.getBugReportsColumnDefinitions;
+import static com.leon.bugreport.BugReportDatabase.isMySQL;
+import static com.leon.bugreport.BugReportManager.plugin;
+
+/**
+ * Ordered schema migrations for the bug report database.
+ * <p>
+ * Every migration that has been applied is recorded in the {@code schema_version} table, so each one
+ * runs exactly once per database and later startups only read the current version. Migrations must
+ * still be idempotent: several servers sharing one MySQL database may start at the same time.
+ * New migrations are appended to {@link #MIGRATIONS} with the next version number and must never be
+ * reordered or removed once released.
+ */
+public class BugReportMigrations {
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(@NotNull Connection connection) throws SQLException;
+    }
+
+    private record Migration(int version, String description, MigrationStep step) { }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Add columns missing from tables created by old versions", BugReportMigrations::addLegacyColumns),
+            new Migration(2, "Convert report_id to a generated key", BugReportMigrations::convertReportIDToGeneratedKey),
+            new Migration(3, "Sync the report ID stored in legacy headers", BugReportMigrations::makeAllHeadersEqualReportID),
+            new Migration(4, "Add indexes for report and player lookups", BugReportMigrations::addIndexes),
+            new Migration(5, "Store the reporter's skin texture with each report", connection -> addColumnIfNotExists(connection, "bug_reports", "player_texture", "TEXT"))
+    );
+
+    public static void migrate() {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS schema_version(version INTEGER NOT NULL PRIMARY KEY, description TEXT, applied_at BIGINT)");
+            }
+
+            recoverInterruptedReportIDConversion(connection);
+
+            int currentVersion = getCurrentVersion(connection);
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version() <= currentVersion) {
+                    continue;
+                }
+
+                plugin.getLogger().info("Applying database migration " + migration.version() + ": " + migration.description());
+                migration.step().apply(connection);
+                recordMigration(connection, migration);
+            }
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to migrate the database schema.");
+            plugin.getLogger().severe(e.getMessage());
+        }
+    }
+
+    private static int getCurrentVersion(@NotNull Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private static void recordMigration(@NotNull Connection connection, @NotNull Migration migration) throws SQLException {
+        if (getCurrentVersion(connection) >= migration.version()) {
+            // Another server sharing this database applied it at the same time.
+            return;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO schema_version(version, description, applied_at) VALUES(?, ?, ?)")) {
+            statement.setInt(1, migration.version());
+            statement.setString(2, migration.description());
+            statement.setLong(3, System.currentTimeMillis());
+            statement.executeUpdate();
+        }
+    }
+
+    private static void addLegacyColumns(@NotNull Connection connection) throws SQLException {
+        addColumnIfNotExists(connection, "player_data", "player_id", "TEXT");
+        addColumnIfNotExists(connection, "player_data", "last_login_timestamp", "BIGINT DEFAULT 0");
+        addColumnIfNotExists(connection, "bug_reports", "archived", "INTEGER DEFAULT 0");
+        addColumnIfNotExists(connection, "bug_reports", "report_id", "INTEGER");
+        addColumnIfNotExists(connection, "bug_reports", "location", "TEXT");
+        addColumnIfNotExists(connection, "bug_reports", "gamemode", "TEXT");
+        addColumnIfNotExists(connection, "bug_reports", "timestamp", "BIGINT");
+    }
+
+    private static void addColumnIfNotExists(@NotNull Connection connection, String tableName, String columnName, String columnDefinition) throws SQLException {
+        if (columnExists(connection, tableName, columnName)) {
+            return;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format("ALTER TABLE %s ADD COLUMN %s %s", tableName, columnName, columnDefinition));
+        }
+    }
+
+    private static boolean isReportIDGenerated(@NotNull Connection connection) throws SQLException {
+        if (isMySQL()) {
+            try (ResultSet resultSet = connection.getMetaData().getColumns(connection.getCatalog(), null, "bug_reports", "report_id")) {
+                return resultSet.next() && "YES".equalsIgnoreCase(resultSet.getString("IS_AUTOINCREMENT"));
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement("SELECT sql FROM sqlite_master WHERE type = 'table' AND name = 'bug_reports'");
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() && resultSet.getString("sql").toUpperCase(Locale.ROOT).contains("AUTOINCREMENT");
+        }
+    }
+
+    private static boolean columnExists(@NotNull Connection connection, String tableName, String columnName) throws SQLException {
+        try (ResultSet resultSet = connection.getMetaData().getColumns(connection.getCatalog(), null, tableName, columnName)) {
+            return resultSet.next();
+        }
+    }
+
+    private static boolean tableExists(@NotNull Connection connection, String tableName) throws SQLException {
+        try (ResultSet resultSet = connection.getMetaData().getTables(connection.getCatalog(), null, tableName, null)) {
+            return resultSet.next();
+        }
+    }
+
+    /**
+     * Tables created by older versions store report_id as a plain integer that the plugin filled in
+     * itself, which hands out duplicate IDs when reports are submitted concurrently or by several
+     * servers sharing one database. This rebuilds such a table so that the database generates the
+     * IDs. Rows that are missing an ID or share one with an earlier row are given new IDs.
+     * <p>
+     * The rename, the copy and the drop run in one transaction. SQLite rolls all of them back
+     * together if anything fails. MySQL commits each DDL statement on its own, so there an
+     * interruption can leave the reports in {@code bug_reports_legacy}. The next start picks them
+     * up again in {@link #recoverInterruptedReportIDConversion(Connection)}.
+     */
+    private static void convertReportIDToGeneratedKey(@NotNull Connection connection) throws SQLException {
+        if (isReportIDGenerated(connection)) {
+            return;
+        }
+
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE bug_reports RENAME TO bug_reports_legacy");
+            statement.execute("CREATE TABLE bug_reports(" + getBugReportsColumnDefinitions() + ")");
+            copyLegacyReports(connection);
+            statement.execute("DROP TABLE bug_reports_legacy");
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * A leftover {@code bug_reports_legacy} table means a report ID conversion stopped after the
+     * rename. Its reports are not in {@code bug_reports}, or not all of them, even if the schema
+     * version says the conversion is done. This copies them over and drops the legacy table. It runs
+     * before the version check on every start, so an interrupted conversion is always resumed.
+     */
+    private static void recoverInterruptedReportIDConversion(@NotNull Connection connection) throws SQLException {
+        if (!tableExists(connection, "bug_reports_legacy")) {
+            return;
+        }
+
+        plugin.getLogger().warning("Found bug_reports_legacy from an interrupted migration, moving its reports into bug_reports.");
+
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS bug_reports(" + getBugReportsColumnDefinitions() + ")");
+            copyLegacyReports(connection);
+            statement.execute("DROP TABLE bug_reports_legacy");
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Copies every row of {@code bug_reports_legacy} into {@code bug_reports}. Rows that
+     * {@code bug_reports} already holds with the same player and timestamp were copied by an
+     * earlier attempt and are skipped. Rows whose ID is missing, duplicated, or taken by a report
+     * submitted since are given new IDs after the highest one in use.
+     */
+    private static void copyLegacyReports(@NotNull Connection connection) throws SQLException {
+        Set<Integer> usedIDs = new HashSet<>();
+        Map<String, Integer> existingRows = new HashMap<>();
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT report_id, player_id, timestamp FROM bug_reports")) {
+            while (resultSet.next()) {
+                usedIDs.add(resultSet.getInt("report_id"));
+                existingRows.merge(resultSet.getString("player_id") + ":" + resultSet.getLong("timestamp"), 1, Integer::sum);
+            }
+        }
+
+        // Tables converted before migration 5 do not have the texture column yet.
+        boolean hasTexture = columnExists(connection, "bug_reports_legacy", "player_texture");
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT * FROM bug_reports_legacy ORDER BY report_id ASC");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO bug_reports(report_id, player_id, header, message, username, world, archived, timestamp, location, gamemode, player_texture) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            List<Object[]> rowsWithoutID = new ArrayList<>();
+            int highestID = usedIDs.stream().mapToInt(Integer::intValue).max().orElse(0);
+
+            while (resultSet.next()) {
+                int reportID = resultSet.getInt("report_id");
+                Object[] row = {
+                        resultSet.getString("player_id"),
+                        resultSet.getString("header"),
+                        resultSet.getString("message"),
+                        resultSet.getString("username"),
+                        resultSet.getString("world"),
+                        resultSet.getInt("archived"),
+                        resultSet.getLong("timestamp"),
+                        resultSet.getString("location"),
+                        resultSet.getString("gamemode"),
+                        hasTexture ? resultSet.getString("player_texture") : null
+                };
+
+                String rowKey = row[0] + ":" + row[6];
+                if (existingRows.getOrDefault(rowKey, 0) > 0) {
+                    existingRows.merge(rowKey, -1, Integer::sum);
+                    continue;
+                }
+
+                if (reportID <= 0 || !usedIDs.add(reportID)) {
+                    rowsWithoutID.add(row);
+                    continue;
+                }
+
+                highestID = Math.max(highestID, reportID);
+                addLegacyRow(insert, reportID, row);
+            }
+
+            for (Object[] row : rowsWithoutID) {
+                addLegacyRow(insert, ++highestID, row);
+            }
+
+            insert.executeBatch();
+        }
+    }
+
+    private static void addLegacyRow(@NotNull PreparedStatement insert, int reportID, Object @NotNull [] row) throws SQLException {
+        insert.setInt(1, reportID);
+        for (int i = 0; i < row.length; i++) {
+            insert.setObject(i + 2, row[i]);
+        }
+        insert.addBatch();
+    }
+
+    private static void makeAllHeadersEqualReportID(@NotNull Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT report_id, header FROM bug_reports");
+             PreparedStatement update = connection.prepareStatement("UPDATE bug_reports SET header = ? WHERE report_id = ?")) {
+            while (resultSet.next()) {
+                int reportID = resultSet.getInt("report_id");
+                String header = resultSet.getString("header");
+                if (header == null || String.valueOf(reportID).equals(BugReport.headerValue(header, "Report ID"))) {
+                    continue;
+                }
+
+                StringBuilder newHeader = new StringBuilder();
+                for (String line : header.split("\n")) {
+                    if (line.startsWith("Report ID:")) {
+                        newHeader.append("Report ID: ").append(reportID);
+                    } else {
+                        newHeader.append(line);
+                    }
+                    newHeader.append("\n");
+                }
+
+                update.setString(1, newHeader.toString().trim());
+                update.setInt(2, reportID);
+                update.addBatch();
+            }
+
+            update.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void addIndexes(@NotNull Connection connection) throws SQLException {
+        removeDuplicatePlayerData(connection);
+
+        createIndexIfNotExists(connection, "player_data", "uq_player_data_player_id", true, textColumn("player_id", 36));
+        createIndexIfNotExists(connection, "bug_reports", "idx_bug_reports_archived", false, "archived", "report_id");
+        createIndexIfNotExists(connection, "bug_reports", "idx_bug_reports_player", false, textColumn("player_id", 36), "archived");
+        createIndexIfNotExists(connection, "bug_reports", "idx_bug_reports_username", false, textColumn("username", 16));
+        createIndexIfNotExists(connection, "bug_reports", "idx_bug_reports_timestamp", false, "timestamp");
+    }
+
+    /**
+     * MySQL can only index TEXT columns by a prefix, while SQLite does not accept a prefix length at all.
+     */
+    private static @NotNull String textColumn(@NotNull String column, int prefixLength) {
+        return isMySQL() ? column + "(" + prefixLength + ")" : column;
+    }
+
+    private static void createIndexIfNotExists(@NotNull Connection connection, String tableName, String indexName, boolean unique, String @NotNull ... columns) throws SQLException {
+        try (ResultSet resultSet = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, tableName, false, false)) {
+            while (resultSet.next()) {
+                if (indexName.equalsIgnoreCase(resultSet.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format("CREATE %sINDEX %s ON %s(%s)", unique ? "UNIQUE " : "", indexName, tableName, String.join(", ", columns)));
+        }
+    }
+
+    /**
+     * Older versions could insert a player_data row more than once for the same player, which would
+     * prevent the unique index from being created. Only the most recent login timestamp is kept.
+     */
+    private static void removeDuplicatePlayerData(@NotNull Connection connection) throws SQLException {
+        Map<String, Long> duplicates = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT player_id, MAX(last_login_timestamp) FROM player_data GROUP BY player_id HAVING COUNT(*) > 1")) {
+            while (resultSet.next()) {
+                duplicates.put(resultSet.getString(1), resultSet.getLong(2));
+            }
+        }
+
+        if (duplicates.isEmpty()) {
+            return;
+        }
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM player_data WHERE player_id = ?");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO player_data(player_id, last_login_timestamp) VALUES(?, ?)")) {
+            for (Map.Entry<String, Long> duplicate : duplicates.entrySet()) {
+                delete.setString(1, duplicate.getKey());
+                delete.addBatch();
+                insert.setString(1, duplicate.getKey());
+                insert.setLong(2, duplicate.getValue());
+                insert.addBatch();
+            }
+
+            delete.executeBatch();
+            insert.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package com.leon.bugreport;
 
 import com.leon.bugreport.API.CacheCleanupListener;
+import com.leon.bugreport.API.DataSource;
+import com.leon.bugreport.API.HttpService;
 import com.leon.bugreport.commands.BugListArchivedCommand;
 import com.leon.bugreport.commands.BugListSettingsCommand;
 import com.leon.bugreport.commands.BugReportCommand;
 import com.leon.bugreport.commands.LinkDiscordCommand;
+import com.leon.bugreport.discord.WebhookDigest;
+import com.leon.bugreport.discord.WebhookDispatcher;
 import com.leon.bugreport.expansions.BugPlaceholders;
 import com.leon.bugreport.extensions.PlanHook;
+import com.leon.bugreport.gui.GUIListener;
 import com.leon.bugreport.listeners.ReportListener;
 import com.leon.bugreport.listeners.UpdateChecker;
 import org.bstats.bukkit.Metrics;
+import org.bstats.charts.SimplePie;
+import org.bstats.charts.SingleLineChart;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -21,9 +28,9 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static com.leon.bugreport.BugReportDatabase.dataSource;
-import static com.leon.bugreport.BugReportDatabase.getStaticUUID;
 import static com.leon.bugreport.BugReportManager.*;
 import static com.leon.bugreport.gui.bugreportGUI.generateNewYML;
 
@@ -56,7 +63,14 @@ public class BugReportPlugin extends JavaPlugin implements Listener {
 
         registerCommands();
         registerListeners();
+        WebhookDispatcher.start();
+        WebhookDigest.start();
         Metrics metrics = new Metrics(this, 18974);
+        metrics.addCustomChart(new SimplePie("mojang_circuit_breaker", () -> DataSource.getMojangApi().getGuard().getState().name()));
+        metrics.addCustomChart(new SingleLineChart("mojang_requests", () -> (int) DataSource.getMojangApi().getGuard().drainRequestCount()));
+        metrics.addCustomChart(new SingleLineChart("mojang_failures", () -> (int) DataSource.getMojangApi().getGuard().drainFailureCount()));
+        metrics.addCustomChart(new SingleLineChart("mojang_rejected_requests", () -> (int) DataSource.getMojangApi().getGuard().drainRejectedCount()));
+        metrics.addCustomChart(new SingleLineChart("discord_webhooks_dropped", () -> (int) WebhookDispatcher.drainDroppedCount()));
 
         BugReportLanguage.loadLanguageTexts(plugin, "languages.yml");
         generateNewYML();
@@ -64,7 +78,12 @@ public class BugReportPlugin extends JavaPlugin implements Listener {
 
     @Override
     public void onDisable() {
+        DataSource.saveCache();
+        WebhookDigest.shutdown();
+        WebhookDispatcher.shutdown();
+        HttpService.shutdown();
         bugReports.clear();
+        BugReportDatabase.shutdownExecutor();
         try {
             dataSource.close();
         } catch (Exception e) {
@@ -76,7 +95,7 @@ public class BugReportPlugin extends JavaPlugin implements Listener {
     public void onPlayerLeave(@NotNull PlayerQuitEvent event){
         Player player = event.getPlayer();
         UUID playerId = player.getUniqueId();
-        BugReportDatabase.setPlayerLastLoginTimestamp(playerId);
+        BugReportDatabase.setPlayerLastLoginTimestampAsync(playerId);
     }
 
     private int compareVersions(@NotNull String version1, @NotNull String version2) {
@@ -107,6 +126,10 @@ public class BugReportPlugin extends JavaPlugin implements Listener {
 
     @EventHandler
     public void onPlayerJoin(@NotNull PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        DataSource.capturePlayerTexture(player);
+        CompletableFuture<Long> lastLoginTimestamp = null;
+
         for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
             if (onlinePlayer.isOp()) {
                 new UpdateChecker(this, 110732).getVersion(spigotVersion -> {
@@ -118,37 +141,31 @@ public class BugReportPlugin extends JavaPlugin implements Listener {
             }
 
             if (onlinePlayer.hasPermission("bugreport.notify")) {
-                Player player = event.getPlayer();
-                UUID playerId = player.getUniqueId();
-
-                long lastLoginTimestamp = BugReportDatabase.getPlayerLastLoginTimestamp(playerId);
-
-                List<String> reports = bugReports.getOrDefault(getStaticUUID(), new ArrayList<>(Collections.singletonList("DUMMY")));
-                List<String> newReports = new ArrayList<>();
-                for (String report : reports) {
-                    String[] lines = report.split("\n");
-                    long reportTimestampLong = 0;
-                    for (String line : lines) {
-                        if (line.startsWith("Timestamp:")) {
-                            reportTimestampLong = Long.parseLong(line.substring(10).trim());
-                        }
-                    }
-                    if (reportTimestampLong > lastLoginTimestamp) {
-                        newReports.add(report);
-                    }
+                if (lastLoginTimestamp == null) {
+                    lastLoginTimestamp = BugReportDatabase.getPlayerLastLoginTimestampAsync(player.getUniqueId());
                 }
 
-                if (!newReports.isEmpty()) {
-                    player.sendMessage(ChatColor.YELLOW + pluginTitle + " " + ChatColor.GRAY + DefaultLanguageSelector.getTextElseDefault(language, "newReportsMessage")
-                            .replace("%numReports%", String.valueOf(newReports.size()))
-                    );
-                } else {
-                    player.sendMessage(ChatColor.YELLOW + pluginTitle + " " + ChatColor.GRAY + DefaultLanguageSelector.getTextElseDefault(language, "noNewReportsMessage"));
-                }
+                lastLoginTimestamp.thenAcceptAsync(timestamp -> sendNewReportsMessage(player, timestamp), BugReportDatabase.mainThread());
             }
         }
     }
 
+    private void sendNewReportsMessage(@NotNull Player player, long lastLoginTimestamp) {
+        if (!player.isOnline()) {
+            return;
+        }
+
+        long newReports = bugReports.count(report -> report.timestamp() > lastLoginTimestamp);
+
+        if (newReports > 0) {
+            player.sendMessage(ChatColor.YELLOW + pluginTitle + " " + ChatColor.GRAY + DefaultLanguageSelector.getTextElseDefault(language, "newReportsMessage")
+                    .replace("%numReports%", String.valueOf(newReports))
+            );
+        } else {
+            player.sendMessage(ChatColor.YELLOW + pluginTitle + " " + ChatColor.GRAY + DefaultLanguageSelector.getTextElseDefault(language, "noNewReportsMessage"));
+        }
+    }
+
     private void registerCommands() {
         Objects.requireNonNull(getCommand("buglistarchived")).setExecutor(new BugListArchivedCommand(reportManager));
         Objects.requireNonNull(getCommand("buglistsettings")).setExecutor(new BugListSettingsCommand(reportManager));
@@ -159,7 +176,8 @@ public class BugReportPlugin extends JavaPlugin implements Listener {
 
     private void registerListeners() {
         getServer().getPluginManager().registerEvents(new BugReportSettings.BugReportSettingsListener(), this);
-        getServer().getPluginManager().registerEvents(new BugReportManager.BugReportListener(), this);
+        getServer().getPluginManager().registerEvents(new GUIListener(), this);
+        getServer().getPluginManager().registerEvents(new BugReportManager.BugReportDetailsListener(), this);
         getServer().getPluginManager().registerEvents(new BugReportCommand(reportManager), this);
         getServer().getPluginManager().registerEvents(new ReportListener(), this);
         getServer().getPluginManager().registerEvents(this, this);
@@ -1,7 +1,7 @@
 package com.leon.bugreport;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.leon.bugreport.API.DataSource;
+import com.leon.bugreport.gui.GUIHolder;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -9,18 +9,13 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.inventory.meta.SkullMeta;
-import org.bukkit.profile.PlayerProfile;
-import org.bukkit.profile.PlayerTextures;
 import org.bukkit.scheduler.BukkitScheduler;
 import org.jetbrains.annotations.NotNull;
 
-import java.net.URL;
 import java.util.*;
 import java.util.function.Consumer;
 
@@ -32,7 +27,8 @@ public class BugReportSettings {
     public BugReportSettings(BugReportManager reportManager) { }
 
     public static @NotNull Inventory getSettingsGUI() {
-        Inventory gui = Bukkit.createInventory(null, 45, ChatColor.YELLOW + "Bug Report - " + BugReportLanguage.getTitleFromLanguage("settings"));
+        GUIHolder holder = new GUIHolder(GUIHolder.Type.SETTINGS);
+        Inventory gui = holder.createInventory(45, ChatColor.YELLOW + "Bug Report - " + BugReportLanguage.getTitleFromLanguage("settings"));
 
         ItemStack setDiscordWebhook = createCustomPlayerHead("eyJ0ZXh0dXJlcyI6eyJTS0lOIjp7InVybCI6Imh0dHA6Ly90ZXh0dXJlcy5taW5lY3JhZnQubmV0L3RleHR1cmUvNGQ0MjMzN2JlMGJkY2EyMTI4MDk3ZjFjNWJiMTEwOWU1YzYzM2MxNzkyNmFmNWZiNmZjMjAwMDAwMTFhZWI1MyJ9fX0=", BugReportLanguage.getTitleFromLanguage("enableDiscordWebhook"), 1);
         ItemStack setLanguage = createCustomPlayerHead("eyJ0ZXh0dXJlcyI6eyJTS0lOIjp7InVybCI6Imh0dHA6Ly90ZXh0dXJlcy5taW5lY3JhZnQubmV0L3RleHR1cmUvODc5ZTU0Y2JlODc4NjdkMTRiMmZiZGYzZjE4NzA4OTQzNTIwNDhkZmVjZDk2Mjg0NmRlYTg5M2IyMTU0Yzg1In19fQ==", BugReportLanguage.getTitleFromLanguage("setLanguage"), 2);
@@ -71,6 +67,14 @@ public class BugReportSettings {
 
         gui.setItem(40, createButton(Material.BARRIER, ChatColor.RED + BugReportLanguage.getTitleFromLanguage("close")));
 
+        holder.setAction(10, BugReportSettings::setDiscordWebhookToggle);
+        holder.setAction(11, BugReportSettings::setBugReportNotificationsToggle);
+        holder.setAction(12, BugReportSettings::setCategorySelectionToggle);
+        holder.setAction(13, BugReportSettingsListener::startMaxReportsInput);
+        holder.setAction(14, BugReportSettings::setLanguageToggle);
+        holder.setAction(15, player -> player.openInventory(getOtherSettingsGUI()));
+        holder.setAction(40, Player::closeInventory);
+
         return gui;
     }
 
@@ -120,7 +124,8 @@ public class BugReportSettings {
     }
 
     private static @NotNull Inventory openLanguageGUI() {
-        Inventory gui = Bukkit.createInventory(null, 45, ChatColor.YELLOW + "Bug Report - " + BugReportLanguage.getTitleFromLanguage("language"));
+        GUIHolder holder = new GUIHolder(GUIHolder.Type.LANGUAGE);
+        Inventory gui = holder.createInventory(45, ChatColor.YELLOW + "Bug Report - " + BugReportLanguage.getTitleFromLanguage("language"));
 
         for (int i = 36; i < 45; i++) {
             gui.setItem(i, createButton(Material.GRAY_STAINED_GLASS_PANE, " "));
@@ -152,253 +157,113 @@ public class BugReportSettings {
 
         gui.setItem(40, createButton(Material.BARRIER, ChatColor.RED + BugReportLanguage.getTitleFromLanguage("back")));
 
-        return gui;
-    }
+        holder.setAction(10, player -> setLanguage("en", "English", player));
+        holder.setAction(11, player -> setLanguage("fr", "French", player));
+        holder.setAction(12, player -> setLanguage("de", "German", player));
+        holder.setAction(13, player -> setLanguage("es", "Spanish", player));
+        holder.setAction(14, player -> setLanguage("it", "Italian", player));
+        holder.setAction(15, player -> setLanguage("zh", "Simplified Chinese", player));
+        holder.setAction(16, player -> setLanguage("ru", "Russian", player));
+        holder.setAction(40, player -> player.openInventory(getSettingsGUI()));
 
-    public static @NotNull ItemStack createCustomPlayerHead(String texture, String name, int modelData) {
-        ItemStack playerHead = new ItemStack(Material.PLAYER_HEAD);
-        SkullMeta skullMeta = (SkullMeta) playerHead.getItemMeta();
-
-        if (skullMeta != null) {
-            try {
-                String decodedValue = new String(Base64.getDecoder().decode(texture));
-                JsonObject textureJson = JsonParser.parseString(decodedValue).getAsJsonObject();
-                String textureUrl = textureJson.getAsJsonObject("textures")
-                   .getAsJsonObject("SKIN")
-                   .get("url").getAsString();
-
-                PlayerProfile profile = Bukkit.createPlayerProfile(UUID.randomUUID());
-                PlayerTextures textures = profile.getTextures();
-
-				textures.setSkin(new URL(textureUrl));
-				profile.setTextures(textures);
-				skullMeta.setOwnerProfile(profile);
-
-				skullMeta.setDisplayName(name);
-                skullMeta.setCustomModelData(modelData);
-                playerHead.setItemMeta(skullMeta);
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to create custom player head: " + e.getMessage());
-                return new ItemStack(Material.PLAYER_HEAD);
-            }
-        }
-
-        return playerHead;
+        return gui;
     }
 
-    public static class BugReportSettingsListener implements Listener {
-        private final Map<UUID, String> setMaxReportsClickMap = new HashMap<>();
-        private final Map<UUID, String> setReportCooldownClickMap = new HashMap<>();
-
-        @EventHandler(priority = EventPriority.NORMAL)
-        public void onInventoryClick(@NotNull InventoryClickEvent event) {
-            String displayName = ChatColor.stripColor(event.getView().getTitle());
-            if (displayName.contains("Bug Report - ")) {
-                displayName = displayName.substring(13);
-            }
-
-            String customDisplayName = BugReportLanguage.getEnglishVersionFromLanguage(displayName);
-
-            if (customDisplayName.contains("Settings")) {
-                event.setCancelled(true);
-
-                Player player = (Player) event.getWhoClicked();
-                Inventory clickedInventory = event.getClickedInventory();
-                if (clickedInventory == null) {
-                    return;
-                }
-
-                ItemStack clickedItem = event.getCurrentItem();
-                if (clickedItem == null || clickedItem.getType() == Material.AIR) {
-                    return;
-                }
-
-                ItemMeta itemMeta = clickedItem.getItemMeta();
-                if (itemMeta == null || !itemMeta.hasDisplayName()) {
-                    return;
-                }
-
-                String itemDisplayName = itemMeta.getDisplayName();
-                String customItemDisplayName = BugReportLanguage.getEnglishVersionFromLanguage(itemDisplayName);
-
-                if (customItemDisplayName.equals("Close")) {
-                    player.closeInventory();
-                    return;
-                }
-
-                if (clickedItem.getItemMeta ().hasCustomModelData()) {
-                    if (clickedItem.getItemMeta ().getCustomModelData() == 1) {
-                        setDiscordWebhookToggle(player);
-                    } else if (clickedItem.getItemMeta().getCustomModelData() == 2) {
-                        setLanguageToggle(player);
-                    }
-                }
-
-                switch (customItemDisplayName) {
-                    case "Enable Bug Report Notifications" -> setBugReportNotificationsToggle(player);
-                    case "Enable Category Selection" -> setCategorySelectionToggle(player);
-                    case "Set Max Reports Per Player" -> {
-                        player.closeInventory();
-                        if (BugReportManager.config.getBoolean("useTitleInsteadOfMessage")) {
-                            player.sendTitle(pluginColor + pluginTitle, getTextElseDefault(BugReportManager.language, "enterMaxReportsPerPlayer"), 10, 70, 20);
-                        } else {
-                            player.sendMessage(pluginColor + pluginTitle + " " + ChatColor.YELLOW + getTextElseDefault(BugReportManager.language, "enterMaxReportsPerPlayer"));
-                        }
-                        setMaxReportsClickMap.put(player.getUniqueId(), String.valueOf(true));
-                        setMaxReportsClickMap.put(player.getUniqueId(), customItemDisplayName);
-                    }
-                    case "Set Report Cooldown" -> {
-                        player.closeInventory();
-                        player.sendMessage(pluginColor + pluginTitle + " " + ChatColor.YELLOW + "Enter the cooldown between reports in seconds. Or type 'cancel' to cancel."); // TODO: Language support
-
-                        setReportCooldownClickMap.put(player.getUniqueId(), String.valueOf(true));
-                        setReportCooldownClickMap.put(player.getUniqueId(), customItemDisplayName);
-                    }
-                    case "Other Settings" -> player.openInventory(getOtherSettingsGUI());
-                }
-            }
-
-            if (customDisplayName.contains("Language")) {
-                event.setCancelled(true);
-
-                Player player = (Player) event.getWhoClicked();
-                Inventory clickedInventory = event.getClickedInventory();
-                ItemStack clickedItem = event.getCurrentItem();
-
-                if (clickedInventory == null || clickedItem == null || clickedItem.getType() == Material.AIR) {
-                    return;
-                }
+    private static @NotNull Inventory getOtherSettingsGUI() {
+        int secondRow = 9;
+        int thirdRow = 18;
+        GUIHolder holder = new GUIHolder(GUIHolder.Type.OTHER_SETTINGS);
+        Inventory gui = holder.createInventory(45, ChatColor.YELLOW + "Bug Report - " + BugReportLanguage.getTitleFromLanguage("otherSettings"));
 
-                ItemMeta itemMeta = clickedItem.getItemMeta();
-
-                if (itemMeta == null || !itemMeta.hasDisplayName()) {
-                    return;
-                }
-
-                String itemDisplayName = itemMeta.getDisplayName();
-                String customItemDisplayName = BugReportLanguage.getEnglishVersionFromLanguage(itemDisplayName);
-
-                if (customItemDisplayName.equals("Back")) {
-                    player.openInventory(getSettingsGUI());
-                    return;
-                }
-
-                if (clickedItem.getItemMeta().hasCustomModelData()) {
-                    int customModelData = clickedItem.getItemMeta().getCustomModelData();
-                    switch (customModelData) {
-                        case 11 -> setLanguage("en", "English", player);
-                        case 12 -> setLanguage("fr", "French", player);
-                        case 13 -> setLanguage("de", "German", player);
-                        case 14 -> setLanguage("es", "Spanish", player);
-                        case 15 -> setLanguage("it", "Italian", player);
-                        case 16 -> setLanguage("zh", "Simplified Chinese", player);
-                        case 17 -> setLanguage("ru", "Russian", player);
-                    }
-                }
-            }
-
-            if (customDisplayName.contains("Other Settings")) {
-                event.setCancelled(true);
-
-                Player player = (Player) event.getWhoClicked();
-                Inventory clickedInventory = event.getClickedInventory();
-                ItemStack clickedItem = event.getCurrentItem();
-
-                if (clickedInventory == null || clickedItem == null || clickedItem.getType() == Material.AIR) {
-                    return;
-                }
-
-                ItemMeta itemMeta = clickedItem.getItemMeta();
-
-                if (itemMeta == null || !itemMeta.hasDisplayName()) {
-                    return;
-                }
-
-                String itemDisplayName = itemMeta.getDisplayName();
-                String customItemDisplayName = BugReportLanguage.getEnglishVersionFromLanguage(itemDisplayName);
+        for (int i = 0; i < 9; i++) {
+            gui.setItem(i, createButton(Material.GRAY_STAINED_GLASS_PANE, " "));
+        }
 
-                if (customItemDisplayName.equals("Back")) {
-                    player.openInventory(getSettingsGUI());
-                    return;
-                }
+        for (int i = 36; i < 45; i++) {
+            gui.setItem(i, createButton(Material.GRAY_STAINED_GLASS_PANE, " "));
+        }
 
-                switch (customItemDisplayName) {
-                    case "Enable Title Message" -> setTitleMessage(player);
-                    case "Enable Player Heads" -> setPlayerHead(player);
-                }
+        for (int i = 9; i < 36; i++) {
+            if (i % 9 == 0 || i % 9 == 8) {
+                gui.setItem(i, createButton(Material.GRAY_STAINED_GLASS_PANE, " "));
             }
         }
 
-        private Inventory getOtherSettingsGUI() {
-            int secondRow = 9;
-            int thirdRow = 18;
-            Inventory gui = Bukkit.createInventory(null, 45, ChatColor.YELLOW + "Bug Report - " + BugReportLanguage.getTitleFromLanguage("otherSettings"));
+        ItemStack enableTitleMessage = createButton(Material.PAPER, ChatColor.YELLOW + BugReportLanguage.getTitleFromLanguage("enableTitleMessage"));
+        ItemStack enablePlayerHeads = createButton(Material.PLAYER_HEAD, ChatColor.YELLOW + BugReportLanguage.getTitleFromLanguage("enablePlayerHeads"));
+        ItemStack onIcon = createButton(Material.LIME_DYE, ChatColor.GREEN + BugReportLanguage.getTitleFromLanguage("on"));
+        ItemStack offIcon = createButton(Material.GRAY_DYE, ChatColor.RED + BugReportLanguage.getTitleFromLanguage("off"));
 
-            for (int i = 0; i < 9; i++) {
-                gui.setItem(i, createButton(Material.GRAY_STAINED_GLASS_PANE, " "));
-            }
+        gui.setItem(secondRow + 1, enableTitleMessage);
+        gui.setItem(secondRow + 2, enablePlayerHeads);
 
-            for (int i = 36; i < 45; i++) {
-                gui.setItem(i, createButton(Material.GRAY_STAINED_GLASS_PANE, " "));
-            }
+        gui.setItem(thirdRow + 1, getTitleMessage() ? onIcon : offIcon);
+        gui.setItem(thirdRow + 2, getPlayerHead() ? onIcon : offIcon);
 
-            for (int i = 9; i < 36; i++) {
-                if (i % 9 == 0 || i % 9 == 8) {
-                    gui.setItem(i, createButton(Material.GRAY_STAINED_GLASS_PANE, " "));
-                }
-            }
+        gui.setItem(40, createButton(Material.BARRIER, ChatColor.RED + BugReportLanguage.getTitleFromLanguage("back")));
 
-            ItemStack enableTitleMessage = createButton(Material.PAPER, ChatColor.YELLOW + BugReportLanguage.getTitleFromLanguage("enableTitleMessage"));
-            ItemStack enablePlayerHeads = createButton(Material.PLAYER_HEAD, ChatColor.YELLOW + BugReportLanguage.getTitleFromLanguage("enablePlayerHeads"));
-            ItemStack onIcon = createButton(Material.LIME_DYE, ChatColor.GREEN + BugReportLanguage.getTitleFromLanguage("on"));
-            ItemStack offIcon = createButton(Material.GRAY_DYE, ChatColor.RED + BugReportLanguage.getTitleFromLanguage("off"));
+        holder.setAction(secondRow + 1, BugReportSettings::setTitleMessage);
+        holder.setAction(secondRow + 2, BugReportSettings::setPlayerHead);
+        holder.setAction(40, player -> player.openInventory(getSettingsGUI()));
 
-            gui.setItem(secondRow + 1, enableTitleMessage);
-            gui.setItem(secondRow + 2, enablePlayerHeads);
+        return gui;
+    }
 
-            gui.setItem(thirdRow + 1, getTitleMessage() ? onIcon : offIcon);
-            gui.setItem(thirdRow + 2, getPlayerHead() ? onIcon : offIcon);
+    private static boolean getTitleMessage() {
+        return BugReportManager.config.getBoolean("useTitleInsteadOfMessage");
+    }
 
-            gui.setItem(40, createButton(Material.BARRIER, ChatColor.RED + BugReportLanguage.getTitleFromLanguage("back")));
+    private static void setTitleMessage(@NotNull Player player) {
+        boolean toggle = getTitleMessage();
+        BugReportManager.config.set("useTitleInsteadOfMessage", !toggle);
+        BugReportManager.saveConfig();
+        player.getOpenInventory().setItem(19, getTitleMessage() ? createButton(Material.LIME_DYE, ChatColor.GREEN + BugReportLanguage.getTitleFromLanguage("on")) : createButton(Material.GRAY_DYE, ChatColor.RED + BugReportLanguage.getTitleFromLanguage("off")));
+    }
 
-            return gui;
-        }
+    private static boolean getPlayerHead() {
+        return BugReportManager.config.getBoolean("enablePlayerHeads");
+    }
 
-        private boolean getTitleMessage() {
-            return BugReportManager.config.getBoolean("useTitleInsteadOfMessage");
-        }
+    private static void setPlayerHead(@NotNull Player player) {
+        boolean toggle = getPlayerHead();
+        BugReportManager.config.set("enablePlayerHeads", !toggle);
+        BugReportManager.saveConfig();
+        player.getOpenInventory().setItem(20, getPlayerHead() ? createButton(Material.LIME_DYE, ChatColor.GREEN + BugReportLanguage.getTitleFromLanguage("on")) : createButton(Material.GRAY_DYE, ChatColor.RED + BugReportLanguage.getTitleFromLanguage("off")));
+    }
 
-        private void setTitleMessage(@NotNull Player player) {
-            boolean toggle = getTitleMessage();
-            BugReportManager.config.set("useTitleInsteadOfMessage", !toggle);
-            BugReportManager.saveConfig();
-            player.getOpenInventory().setItem(19, getTitleMessage() ? createButton(Material.LIME_DYE, ChatColor.GREEN + BugReportLanguage.getTitleFromLanguage("on")) : createButton(Material.GRAY_DYE, ChatColor.RED + BugReportLanguage.getTitleFromLanguage("off")));
+    private static void setLanguage(String languageCode, String languageName, @NotNull Player player) {
+        player.closeInventory();
+        if (checkForKey("useTitleInsteadOfMessage", true)) {
+            player.sendTitle(pluginColor + pluginTitle, getTextElseDefault(languageCode, "languageSetTo").replace("%language%", languageName), 10, 70, 20);
+        } else {
+            player.sendMessage(pluginColor + pluginTitle + " " + ChatColor.GREEN + getTextElseDefault(languageCode, "languageSetTo").replace("%language%", languageName));
         }
+        updateBugReportItems();
+        BugReportManager.config.set("language", languageCode);
+        BugReportManager.saveConfig();
+        BugReportManager.loadConfig();
 
-        private boolean getPlayerHead() {
-            return BugReportManager.config.getBoolean("enablePlayerHeads");
-        }
+        player.openInventory(openLanguageGUI());
+    }
 
-        private void setPlayerHead(@NotNull Player player) {
-            boolean toggle = getPlayerHead();
-            BugReportManager.config.set("enablePlayerHeads", !toggle);
-            BugReportManager.saveConfig();
-            player.getOpenInventory().setItem(20, getPlayerHead() ? createButton(Material.LIME_DYE, ChatColor.GREEN + BugReportLanguage.getTitleFromLanguage("on")) : createButton(Material.GRAY_DYE, ChatColor.RED + BugReportLanguage.getTitleFromLanguage("off")));
-        }
+    public static @NotNull ItemStack createCustomPlayerHead(String texture, String name, int modelData) {
+        return DataSource.createSkullItem(texture, name, modelData);
+    }
 
-        private static void setLanguage(String languageCode, String languageName, @NotNull Player player) {
+    public static class BugReportSettingsListener implements Listener {
+        private static final Map<UUID, String> setMaxReportsClickMap = new HashMap<>();
+
+        /**
+         * Closes the settings and waits for the player to type the new maximum in chat.
+         */
+        private static void startMaxReportsInput(@NotNull Player player) {
             player.closeInventory();
-            if (checkForKey("useTitleInsteadOfMessage", true)) {
-                player.sendTitle(pluginColor + pluginTitle, getTextElseDefault(languageCode, "languageSetTo").replace("%language%", languageName), 10, 70, 20);
+            if (BugReportManager.config.getBoolean("useTitleInsteadOfMessage")) {
+                player.sendTitle(pluginColor + pluginTitle, getTextElseDefault(BugReportManager.language, "enterMaxReportsPerPlayer"), 10, 70, 20);
             } else {
-                player.sendMessage(pluginColor + pluginTitle + " " + ChatColor.GREEN + getTextElseDefault(languageCode, "languageSetTo").replace("%language%", languageName));
+                player.sendMessage(pluginColor + pluginTitle + " " + ChatColor.YELLOW + getTextElseDefault(BugReportManager.language, "enterMaxReportsPerPlayer"));
             }
-            updateBugReportItems();
-            BugReportManager.config.set("language", languageCode);
-            BugReportManager.saveConfig();
-            BugReportManager.loadConfig();
-
-            player.openInventory(openLanguageGUI());
+            setMaxReportsClickMap.put(player.getUniqueId(), "Set Max Reports Per Player");
         }
 
         @EventHandler(priority = EventPriority.NORMAL)
@@ -442,30 +307,6 @@ public class BugReportSettings {
                         }
                     }
                 });
-            } else if (setReportCooldownClickMap.containsKey(player.getUniqueId())) {
-                handleSettingUpdate(event, player, setReportCooldownClickMap, "Set Report Cooldown", "report-cooldown", (value) -> {
-                    int reportCooldown;
-                    try {
-                        reportCooldown = Integer.parseInt(value);
-                    } catch (NumberFormatException e) {
-                        if (checkForKey("useTitleInsteadOfMessage", true)) {
-                            player.sendTitle(pluginColor + pluginTitle, getTextElseDefault(BugReportManager.config.getString("language"), "enterValidNumber"), 10, 70, 20);
-                        } else {
-                            player.sendMessage(pluginColor + pluginTitle + " " + ChatColor.RED + getTextElseDefault(BugReportManager.config.getString("language"), "enterValidNumber"));
-                        }
-                        return;
-                    }
-
-                    BugReportManager.config.set("report-cooldown", reportCooldown);
-                    BugReportManager.saveConfig();
-                    if (checkForKey("useTitleInsteadOfMessage", true)) {
-                        player.sendTitle(pluginColor + pluginTitle, getTextElseDefault(BugReportManager.config.getString("language"), "reportCooldownSuccessMessage")
-                            .replace("%time%", String.valueOf(reportCooldown)), 10, 70, 20);
-                    } else {
-                        player.sendMessage(pluginColor + pluginTitle + " " + ChatColor.GREEN + getTextElseDefault(BugReportManager.config.getString("language"), "reportCooldownSuccessMessage")
-                                .replace("%time%", String.valueOf(reportCooldown)));
-                    }
-                });
             }
         }
 
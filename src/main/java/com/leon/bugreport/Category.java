@@ -4,6 +4,7 @@ import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
+import java.util.List;
 import java.util.Objects;
 
 public class Category {
@@ -11,12 +12,14 @@ public class Category {
 	private final String color;
 	private final String name;
 	private final ItemStack itemStack;
+	private final List<String> webhookURLs;
 
-	Category(int id, String name, String color, ItemStack itemStack) {
+	Category(int id, String name, String color, ItemStack itemStack, List<String> webhookURLs) {
 		this.id = id;
 		this.name = name;
 		this.color = color;
 		this.itemStack = itemStack;
+		this.webhookURLs = webhookURLs;
 	}
 
 	public int getId() {
@@ -42,4 +45,12 @@ public class Category {
 	public Material getItem() {
 		return itemStack.getType ();
 	}
+
+	/**
+	 * @return the Discord webhooks reports in this category are sent to instead of the default
+	 * webhook, empty if the category has none of its own.
+	 */
+	public List<String> getWebhookURLs() {
+		return webhookURLs;
+	}
 }
@@ -1,11 +1,11 @@
 package com.leon.bugreport.commands;
 
+import com.leon.bugreport.BugReportDatabase;
 import com.leon.bugreport.BugReportManager;
 import com.leon.bugreport.Category;
 import com.leon.bugreport.DefaultLanguageSelector;
-import org.bukkit.Bukkit;
+import com.leon.bugreport.gui.GUIHolder;
 import org.bukkit.ChatColor;
-import org.bukkit.Material;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -13,7 +13,6 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -23,21 +22,40 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 
-import static com.leon.bugreport.BugReportDatabase.getStaticUUID;
 import static com.leon.bugreport.BugReportManager.*;
 import static org.bukkit.ChatColor.*;
 
 public class BugReportCommand implements CommandExecutor, Listener {
     private final BugReportManager reportManager;
-    private final Map<UUID, Integer> categorySelectionMap;
+    private static final Map<UUID, Integer> categorySelectionMap = new HashMap<>();
 
     public BugReportCommand(BugReportManager reportManager) {
         this.reportManager = reportManager;
-        this.categorySelectionMap = new HashMap<>();
     }
 
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String[] args) {
+        if (args.length == 1 && args[0].equalsIgnoreCase("reload")) {
+            if (!sender.hasPermission("bugreport.admin")) {
+                sender.sendMessage(pluginColor + pluginTitle + " " + RED + "You don't have permission to use this command."); // TODO: Language support
+                return true;
+            }
+
+            bugReports.beginReload();
+            BugReportDatabase.loadBugReportsAsync().whenCompleteAsync((reports, error) -> {
+                if (error != null) {
+                    bugReports.cancelReload();
+                    BugReportDatabase.logLoadFailure(error);
+                    sender.sendMessage(pluginColor + pluginTitle + " " + RED + "Failed to reload the bug reports, the current reports were kept. See the console for details."); // TODO: Language support
+                    return;
+                }
+
+                bugReports.replaceAll(reports);
+                sender.sendMessage(pluginColor + pluginTitle + " " + GREEN + "Reloaded " + reports.size() + " bug reports from the database."); // TODO: Language support
+            }, BugReportDatabase.mainThread());
+            return true;
+        }
+
         if (!(sender instanceof Player player)) {
             sender.sendMessage("This command can only be run by a player.");
             return true;
@@ -85,70 +103,31 @@ public class BugReportCommand implements CommandExecutor, Listener {
     }
 
     private int getReportCount(UUID playerId) {
-        int count = 0;
-        List<String> reports = bugReports.getOrDefault(getStaticUUID(), new ArrayList<>(Collections.singletonList("DUMMY")));
-        for (String report : reports) {
-            if (report.contains(playerId.toString())) {
-                count++;
-            }
-        }
-        return count;
+        return (int) bugReports.countForPlayer(playerId);
     }
 
     private void openCategorySelectionGUI(Player player) {
-        Inventory gui = Bukkit.createInventory(null, 9, YELLOW + "Bug Report Categories");
+        GUIHolder holder = new GUIHolder(GUIHolder.Type.CATEGORY_SELECTION);
+        Inventory gui = holder.createInventory(9, YELLOW + "Bug Report Categories");
 
         List<Category> categories = reportManager.getReportCategories();
 
-        for (Category category : categories) {
-            ItemStack categoryItem = createCategoryItem(category);
-            gui.addItem(categoryItem);
+        for (int slot = 0; slot < Math.min(categories.size(), gui.getSize()); slot++) {
+            Category category = categories.get(slot);
+            gui.setItem(slot, createCategoryItem(category));
+            holder.setAction(slot, clicker -> selectCategory(clicker, category));
         }
 
         player.openInventory(gui);
     }
 
-    @EventHandler(priority = EventPriority.NORMAL)
-    public void onInventoryClick(@NotNull InventoryClickEvent event) {
-        if (!event.getView().getTitle().equals(YELLOW + "Bug Report Categories")) {
-            return;
-        }
-
-        event.setCancelled(true);
-
-        Player player = (Player) event.getWhoClicked();
-        ItemStack clickedItem = event.getCurrentItem();
-
-        if (clickedItem == null || clickedItem.getType() == Material.AIR) {
-            return;
-        }
-
-        ItemMeta itemMeta = clickedItem.getItemMeta();
-        if (itemMeta == null || !itemMeta.hasDisplayName()) {
-            return;
-        }
-
-        String categoryName = stripColor(itemMeta.getDisplayName());
-        List<Category> categories = reportManager.getReportCategories();
-        Category selectedCategory = null;
-
-        for (Category category : categories) {
-            if (category.getName().equals(categoryName)) {
-                selectedCategory = category;
-                break;
-            }
-        }
-
-        if (selectedCategory != null) {
-            categorySelectionMap.put(player.getUniqueId(), selectedCategory.getId());
-            player.closeInventory();
-            if (checkForKey("useTitleInsteadOfMessage", true)) {
-                player.sendTitle(YELLOW + DefaultLanguageSelector.getTextElseDefault(language, "enterBugReportMessageCategory"), "", 10, 70, 120); // TODO: Finish this in all places
-            } else {
-                player.sendMessage(pluginColor + pluginTitle + " " + YELLOW + DefaultLanguageSelector.getTextElseDefault(language, "enterBugReportMessageCategory"));
-            }
+    private static void selectCategory(@NotNull Player player, @NotNull Category category) {
+        categorySelectionMap.put(player.getUniqueId(), category.getId());
+        player.closeInventory();
+        if (checkForKey("useTitleInsteadOfMessage", true)) {
+            player.sendTitle(YELLOW + DefaultLanguageSelector.getTextElseDefault(language, "enterBugReportMessageCategory"), "", 10, 70, 120); // TODO: Finish this in all places
         } else {
-            player.sendMessage(pluginColor + pluginTitle + " " + RED + "Something went wrong while selecting the category");
+            player.sendMessage(pluginColor + pluginTitle + " " + YELLOW + DefaultLanguageSelector.getTextElseDefault(language, "enterBugReportMessageCategory"));
         }
     }
 
@@ -1,22 +1,30 @@
 package com.leon.bugreport.discord;
 
-import org.jetbrains.annotations.Contract;
+import com.google.gson.stream.JsonWriter;
+import com.leon.bugreport.API.HttpService;
 import org.jetbrains.annotations.NotNull;
 
-import javax.net.ssl.HttpsURLConnection;
 import java.awt.*;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.lang.reflect.Array;
-import java.net.URL;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class DiscordWebhook {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final Pattern RETRY_AFTER_PATTERN = Pattern.compile("\"retry_after\"\\s*:\\s*([0-9.]+)");
+    public static final int MAX_EMBEDS_PER_MESSAGE = 10;
+    public static final int MAX_EMBED_CHARACTERS_PER_MESSAGE = 6000;
+
     private String content;
     private String username;
     private String avatarUrl;
@@ -43,112 +51,171 @@ public class DiscordWebhook {
         this.embeds.add(embed);
     }
 
-    public void execute() throws IOException {
-        if (this.content == null && this.embeds.isEmpty()) {
-            throw new IllegalArgumentException("Set content or add at least one EmbedObject");
+    /**
+     * Result of posting a webhook. {@code retryAfterMillis} is how long Discord asked us to wait
+     * before the next request to this webhook, either because this one was rate limited or
+     * because it used up the last request of the current rate limit bucket.
+     */
+    public record Response(int statusCode, long retryAfterMillis) {
+        public boolean isSuccess() {
+            return statusCode >= 200 && statusCode < 300;
         }
 
-        JSONObject json = new JSONObject();
-
-        json.put("content", this.content);
-        json.put("username", this.username);
-        json.put("avatar_url", this.avatarUrl);
-        json.put("tts", false);
-
-        if (!this.embeds.isEmpty()) {
-            List<JSONObject> embedObjects = new ArrayList<>();
-
-            for (EmbedObject embed : this.embeds) {
-                JSONObject jsonEmbed = new JSONObject();
-
-                jsonEmbed.put("title", embed.getTitle());
-                jsonEmbed.put("description", embed.getDescription());
-                jsonEmbed.put("url", embed.getUrl());
-
-                if (embed.getColor() != null) {
-                    Color color = embed.getColor();
-                    int rgb = color.getRed();
-                    rgb = (rgb << 8) + color.getGreen();
-                    rgb = (rgb << 8) + color.getBlue();
-
-                    jsonEmbed.put("color", rgb);
-                }
+        public boolean isRateLimited() {
+            return statusCode == 429;
+        }
 
-                if (embed.getTimestamp() != null) {
-                    Timestamp timestamp = embed.getTimestamp();
-                    String time = timestamp.toString();
-                    jsonEmbed.put("timestamp", time);
-                }
+        /**
+         * Rate limits and server errors are worth retrying, other client errors are not.
+         */
+        public boolean isRetryable() {
+            return isRateLimited() || statusCode >= 500;
+        }
+    }
 
-                EmbedObject.Footer footer = embed.getFooter();
-                EmbedObject.Image image = embed.getImage();
-                EmbedObject.Thumbnail thumbnail = embed.getThumbnail();
-                EmbedObject.Author author = embed.getAuthor();
-                List<EmbedObject.Field> fields = embed.getFields();
+    public String getUrl() {
+        return url;
+    }
 
-                if (footer != null) {
-                    JSONObject jsonFooter = new JSONObject ();
+    public List<EmbedObject> getEmbeds() {
+        return embeds;
+    }
 
-                    jsonFooter.put("text", footer.getText());
-                    jsonFooter.put("icon_url", footer.getIconUrl());
-                    jsonEmbed.put("footer", jsonFooter);
-                }
+    /**
+     * Packs the embeds of webhooks for the same URL into as few messages as Discord accepts, at most
+     * {@value #MAX_EMBEDS_PER_MESSAGE} embeds and {@value #MAX_EMBED_CHARACTERS_PER_MESSAGE}
+     * characters each. Webhooks that set their own content, username or avatar are kept as they are.
+     */
+    public static @NotNull List<DiscordWebhook> batch(@NotNull List<DiscordWebhook> webhooks) {
+        List<DiscordWebhook> batched = new ArrayList<>();
+        Map<String, DiscordWebhook> openBatches = new HashMap<>();
+        Map<String, Integer> openBatchCharacters = new HashMap<>();
+
+        for (DiscordWebhook webhook : webhooks) {
+            if (webhook.content != null || webhook.username != null || webhook.avatarUrl != null) {
+                batched.add(webhook);
+                continue;
+            }
 
-                if (image != null) {
-                    JSONObject jsonImage = new JSONObject ();
+            for (EmbedObject embed : webhook.embeds) {
+                DiscordWebhook current = openBatches.get(webhook.url);
+                int characters = openBatchCharacters.getOrDefault(webhook.url, 0) + embed.length();
 
-                    jsonImage.put("url", image.getUrl());
-                    jsonEmbed.put("image", jsonImage);
+                if (current == null || current.embeds.size() >= MAX_EMBEDS_PER_MESSAGE || characters > MAX_EMBED_CHARACTERS_PER_MESSAGE) {
+                    current = new DiscordWebhook(webhook.url);
+                    characters = embed.length();
+                    openBatches.put(webhook.url, current);
+                    batched.add(current);
                 }
 
-                if (thumbnail != null) {
-                    JSONObject jsonThumbnail = new JSONObject ();
+                current.addEmbed(embed);
+                openBatchCharacters.put(webhook.url, characters);
+            }
+        }
+        return batched;
+    }
 
-                    jsonThumbnail.put("url", thumbnail.getUrl());
-                    jsonEmbed.put("thumbnail", jsonThumbnail);
-                }
+    public Response execute() throws IOException {
+        return post(this.url, toJson());
+    }
 
-                if (author != null) {
-                    JSONObject jsonAuthor = new JSONObject ();
+    /**
+     * Writes the payload with a streaming JSON writer. The static parts of an embed, such as its
+     * footer and thumbnail, are serialized once and then copied in as they are.
+     */
+    public String toJson() {
+        if (this.content == null && this.embeds.isEmpty()) {
+            throw new IllegalArgumentException("Set content or add at least one EmbedObject");
+        }
 
-                    jsonAuthor.put("name", author.getName());
-                    jsonAuthor.put("url", author.getUrl());
-                    jsonAuthor.put("icon_url", author.getIconUrl());
-                    jsonEmbed.put("author", jsonAuthor);
+        StringWriter out = new StringWriter(256 + this.embeds.size() * 512);
+        try (JsonWriter json = new JsonWriter(out)) {
+            json.beginObject();
+            writeField(json, "content", this.content);
+            writeField(json, "username", this.username);
+            writeField(json, "avatar_url", this.avatarUrl);
+            json.name("tts").value(false);
+
+            if (!this.embeds.isEmpty()) {
+                json.name("embeds").beginArray();
+                for (EmbedObject embed : this.embeds) {
+                    embed.writeJson(json);
                 }
+                json.endArray();
+            }
+            json.endObject();
+        } catch (IOException e) {
+            // A StringWriter does not throw.
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
 
-                List<JSONObject> jsonFields = new ArrayList<>();
-                for (EmbedObject.Field field : fields) {
-                    JSONObject jsonField = new JSONObject ();
+    private static void writeField(@NotNull JsonWriter json, @NotNull String name, String value) throws IOException {
+        if (value != null) {
+            json.name(name).value(value);
+        }
+    }
 
-                    jsonField.put("name", field.getName());
-                    jsonField.put("value", field.getValue());
-                    jsonField.put("inline", field.isInline());
+    /**
+     * Serializes a flat object of string fields once, skipping null values.
+     */
+    private static @NotNull String compileObject(String @NotNull ... namesAndValues) {
+        StringWriter out = new StringWriter();
+        try (JsonWriter json = new JsonWriter(out)) {
+            json.beginObject();
+            for (int i = 0; i < namesAndValues.length; i += 2) {
+                writeField(json, namesAndValues[i], namesAndValues[i + 1]);
+            }
+            json.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
 
-                    jsonFields.add(jsonField);
-                }
+    /**
+     * Posts an already built payload to a webhook URL.
+     */
+    public static Response post(String webhookURL, String payload) throws IOException {
+        HttpService.Response response = HttpService.postJson(webhookURL, payload, REQUEST_TIMEOUT);
+        return new Response(response.statusCode(), getRetryAfterMillis(response.statusCode(), response::header, response.bodyString()));
+    }
 
-                jsonEmbed.put("fields", jsonFields.toArray());
-                embedObjects.add(jsonEmbed);
+    /**
+     * Works out how long to wait from Discord's rate limit headers, or from the {@code retry_after}
+     * field of a 429 body. Both are in seconds and may have a fractional part.
+     */
+    private static long getRetryAfterMillis(int statusCode, @NotNull Function<String, String> headers, String responseBody) {
+        if (statusCode == 429) {
+            Double retryAfter = parseSeconds(headers.apply("Retry-After"));
+            if (retryAfter == null) {
+                Matcher matcher = RETRY_AFTER_PATTERN.matcher(responseBody);
+                retryAfter = matcher.find() ? parseSeconds(matcher.group(1)) : null;
             }
-
-            json.put("embeds", embedObjects.toArray());
+            if (retryAfter == null) {
+                retryAfter = parseSeconds(headers.apply("X-RateLimit-Reset-After"));
+            }
+            return retryAfter != null ? (long) Math.ceil(retryAfter * 1000) : 0;
         }
 
-        URL url = new URL(this.url);
-        HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-        connection.addRequestProperty("Content-Type", "application/json");
-        connection.addRequestProperty("User-Agent", "BugReport-Webhook");
-        connection.setDoOutput(true);
-        connection.setRequestMethod("POST");
+        if ("0".equals(headers.apply("X-RateLimit-Remaining"))) {
+            Double resetAfter = parseSeconds(headers.apply("X-RateLimit-Reset-After"));
+            return resetAfter != null ? (long) Math.ceil(resetAfter * 1000) : 0;
+        }
+        return 0;
+    }
 
-        OutputStream stream = connection.getOutputStream();
-        stream.write(json.toString().getBytes());
-        stream.flush();
-        stream.close();
+    private static Double parseSeconds(String value) {
+        if (value == null) {
+            return null;
+        }
 
-        connection.getInputStream().close();
-        connection.disconnect();
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     public static class EmbedObject {
@@ -204,6 +271,23 @@ public class DiscordWebhook {
             return fields;
         }
 
+        /**
+         * @return the number of characters Discord counts towards its per-message embed limit.
+         */
+        public int length() {
+            int length = lengthOf(title) + lengthOf(description);
+            if (footer != null) length += lengthOf(footer.getText());
+            if (author != null) length += lengthOf(author.getName());
+            for (Field field : fields) {
+                length += lengthOf(field.getName()) + lengthOf(field.getValue());
+            }
+            return length;
+        }
+
+        private static int lengthOf(String value) {
+            return value == null ? 0 : value.length();
+        }
+
         public EmbedObject setTitle(String title) {
             this.title = title;
             return this;
@@ -224,6 +308,61 @@ public class DiscordWebhook {
             return this;
         }
 
+        /**
+         * @return a new embed with the same title, description, colour, footer, thumbnail, image
+         * and author, and with no fields, so a template can be filled in per report.
+         */
+        public EmbedObject copy() {
+            EmbedObject copy = new EmbedObject();
+            copy.title = title;
+            copy.description = description;
+            copy.url = url;
+            copy.color = color;
+            copy.timestamp = timestamp;
+            copy.footer = footer;
+            copy.thumbnail = thumbnail;
+            copy.image = image;
+            copy.author = author;
+            return copy;
+        }
+
+        private void writeJson(@NotNull JsonWriter json) throws IOException {
+            json.beginObject();
+            writeField(json, "title", title);
+            writeField(json, "description", description);
+            writeField(json, "url", url);
+
+            if (color != null) {
+                json.name("color").value(color.getRGB() & 0xFFFFFF);
+            }
+            if (timestamp != null) {
+                json.name("timestamp").value(timestamp.toString());
+            }
+            if (footer != null) {
+                json.name("footer").jsonValue(footer.getJson());
+            }
+            if (image != null) {
+                json.name("image").jsonValue(image.getJson());
+            }
+            if (thumbnail != null) {
+                json.name("thumbnail").jsonValue(thumbnail.getJson());
+            }
+            if (author != null) {
+                json.name("author").jsonValue(author.getJson());
+            }
+
+            json.name("fields").beginArray();
+            for (Field field : fields) {
+                json.beginObject();
+                writeField(json, "name", field.getName());
+                writeField(json, "value", field.getValue());
+                json.name("inline").value(field.isInline());
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+        }
+
         public EmbedObject setTimestamp() {
             ZonedDateTime zonedDateTime = Instant.now().atZone(ZoneId.of("UTC"));
             this.timestamp = Timestamp.valueOf(zonedDateTime.toLocalDateTime());
@@ -258,10 +397,16 @@ public class DiscordWebhook {
         private static class Footer {
             private final String text;
             private final String iconUrl;
+            private final String json;
 
             private Footer(String text, String iconUrl) {
                 this.text = text;
                 this.iconUrl = iconUrl;
+                this.json = compileObject("text", text, "icon_url", iconUrl);
+            }
+
+            private String getJson() {
+                return json;
             }
 
             private String getText() {
@@ -275,9 +420,15 @@ public class DiscordWebhook {
 
         private static class Thumbnail {
             private final String url;
+            private final String json;
 
             private Thumbnail(String url) {
                 this.url = url;
+                this.json = compileObject("url", url);
+            }
+
+            private String getJson() {
+                return json;
             }
 
             private String getUrl() {
@@ -287,9 +438,15 @@ public class DiscordWebhook {
 
         private static class Image {
             private final String url;
+            private final String json;
 
             private Image(String url) {
                 this.url = url;
+                this.json = compileObject("url", url);
+            }
+
+            private String getJson() {
+                return json;
             }
 
             private String getUrl() {
@@ -302,10 +459,17 @@ public class DiscordWebhook {
             private final String url;
             private final String iconUrl;
 
+            private final String json;
+
             private Author(String name, String url, String iconUrl) {
                 this.name = name;
                 this.url = url;
                 this.iconUrl = iconUrl;
+                this.json = compileObject("name", name, "url", url, "icon_url", iconUrl);
+            }
+
+            private String getJson() {
+                return json;
             }
 
             private String getName() {
@@ -345,53 +509,4 @@ public class DiscordWebhook {
             }
         }
     }
-
-    private static class JSONObject {
-        private final HashMap<String, Object> map = new HashMap<>();
-
-        void put(String key, Object value) {
-            if (value != null) {
-                map.put(key, value);
-            }
-        }
-
-        @Override
-        public String toString() {
-            StringBuilder builder = new StringBuilder();
-            Set<Map.Entry<String, Object>> entrySet = map.entrySet();
-            builder.append("{");
-
-            int i = 0;
-            for (Map.Entry<String, Object> entry : entrySet) {
-                Object val = entry.getValue();
-                builder.append(quote(entry.getKey())).append(":");
-
-                if (val instanceof String) {
-                    builder.append(quote(String.valueOf(val)));
-                } else if (val instanceof Integer) {
-                    builder.append(Integer.valueOf(String.valueOf(val)));
-                } else if (val instanceof Boolean) {
-                    builder.append(val);
-                } else if (val instanceof JSONObject) {
-                    builder.append(val);
-                } else if (val.getClass().isArray()) {
-                    builder.append("[");
-                    int len = Array.getLength(val);
-                    for (int j = 0; j < len; j++) {
-                        builder.append(Array.get(val, j).toString()).append(j != len - 1 ? "," : "");
-                    }
-                    builder.append("]");
-                }
-
-                builder.append(++i == entrySet.size() ? "}" : ",");
-            }
-
-            return builder.toString();
-        }
-
-        @Contract(pure = true)
-        private @NotNull String quote(String string) {
-            return "\"" + string + "\"";
-        }
-    }
 }
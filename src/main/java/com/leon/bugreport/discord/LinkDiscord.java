@@ -1,14 +1,16 @@
 package com.leon.bugreport.discord;
 
+import com.leon.bugreport.API.DataSource;
+import com.leon.bugreport.Category;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.List;
+import java.util.*;
 
 import static com.leon.bugreport.BugReportManager.config;
+import static com.leon.bugreport.BugReportManager.plugin;
 import static com.leon.bugreport.commands.BugReportCommand.chatColorToColor;
 import static com.leon.bugreport.commands.BugReportCommand.stringColorToColorCode;
 
@@ -20,7 +22,12 @@ public class LinkDiscord {
     private static final String EMBED_DATE = "true";
     private static final String EMBED_THUMBNAIL_ENABLED = "true";
     private static final Color EMBED_COLOR = Color.RED;
+    private static final long DIGEST_INTERVAL = 300;
+    private static final int DIGEST_MAX_REPORTS = 50;
     private String webhookURL;
+    // The parts of the embed that only depend on the config, serialized once per config change.
+    private DiscordWebhook.EmbedObject embedTemplate;
+    private String embedTemplateKey;
 
     public LinkDiscord(String webhookURL) {
         this.webhookURL = webhookURL;
@@ -30,9 +37,17 @@ public class LinkDiscord {
         this.webhookURL = webhookURL;
     }
 
-    public void sendBugReport(String message, String world, String username, String location, String gamemode) {
-        if (webhookURL.isEmpty()) {
-            System.out.println("Webhook URL is not configured. Bug report not sent to Discord.");
+    /**
+     * Queues a bug report notification for every webhook the report is routed to. Only the
+     * configuration is read on the calling thread, the requests themselves happen on the
+     * {@link WebhookDispatcher} threads. The reporter's UUID is used as it is; only offline mode
+     * UUIDs need a lookup of the Mojang UUID for the avatar, which goes through the head cache. In
+     * digest mode the report is only added to the next {@link WebhookDigest} of each webhook.
+     */
+    public void sendBugReport(String message, String world, String username, @Nullable UUID playerId, String location, String gamemode, @Nullable Category category) {
+        List<String> webhookURLs = getWebhookURLs(category);
+        if (webhookURLs.isEmpty()) {
+            plugin.getLogger().warning("Webhook URL is not configured. Bug report not sent to Discord.");
             return;
         }
 
@@ -44,67 +59,89 @@ public class LinkDiscord {
         String discordEnableThumbnail = config.getString("discordEnableThumbnail");
         Color discordEmbedColor = chatColorToColor(stringColorToColorCode(config.getString("discordEmbedColor")));
 
-        discordEmbedFooter = (discordEmbedFooter == null || discordEmbedFooter.isEmpty()) ? EMBED_FOOTER_TEXT : discordEmbedFooter;
-        discordEmbedColor = (discordEmbedColor == null) ? EMBED_COLOR : discordEmbedColor;
-        discordEmbedThumbnail = (discordEmbedThumbnail == null || discordEmbedThumbnail.isEmpty()) ? EMBED_THUMBNAIL : discordEmbedThumbnail;
-        discordEmbedTitle = (discordEmbedTitle == null || discordEmbedTitle.isEmpty()) ? EMBED_TITLE : discordEmbedTitle;
-        discordEnableUserAuthor = (discordEnableUserAuthor == null) ? EMBED_AUTHOR : discordEnableUserAuthor;
-        discordIncludeDate = (discordIncludeDate == null) ? EMBED_DATE : discordIncludeDate;
-        discordEnableThumbnail = (discordEnableThumbnail == null) ? EMBED_THUMBNAIL_ENABLED : discordEnableThumbnail;
-        String newUUID = discordEnableUserAuthor.equals ("true") ? getUserIDFromAPI (username) : "Not Available";
-
-        String userAuthorURL = "https://crafatar.com/avatars/" + newUUID;
-        String userAuthorIconURL = "https://crafatar.com/avatars/" + newUUID;
-
-        DiscordWebhook webhook = new DiscordWebhook(webhookURL);
-        DiscordWebhook.EmbedObject embedObject = new DiscordWebhook.EmbedObject()
-            .setTitle(discordEmbedTitle)
-            .addField("Username", username, true)
-            .addField("UUID", newUUID, true)
-            .addField("World", world, true)
-            .addField("Location (X, Y, Z)", location, true)
-            .addField("Gamemode", gamemode, true)
-            .addField("Full Message", message, false)
-            .setFooter(discordEmbedFooter, null)
-            .setColor(discordEmbedColor);
-
-        if (discordEnableUserAuthor.equals("true")) embedObject.setAuthor(username, userAuthorURL, userAuthorIconURL);
-        if (discordIncludeDate.equals("true")) embedObject.setTimestamp();
-        if (discordEnableThumbnail.equals("true")) embedObject.setThumbnail (discordEmbedThumbnail);
-
-        webhook.addEmbed(embedObject);
-
-        try {
-            webhook.execute();
-        } catch (Exception e) {
-            System.out.println("Error sending bug report to Discord: " + e.getMessage());
+        String embedFooter = (discordEmbedFooter == null || discordEmbedFooter.isEmpty()) ? EMBED_FOOTER_TEXT : discordEmbedFooter;
+        Color embedColor = (discordEmbedColor == null) ? EMBED_COLOR : discordEmbedColor;
+        String embedThumbnail = (discordEmbedThumbnail == null || discordEmbedThumbnail.isEmpty()) ? EMBED_THUMBNAIL : discordEmbedThumbnail;
+        String embedTitle = (discordEmbedTitle == null || discordEmbedTitle.isEmpty()) ? EMBED_TITLE : discordEmbedTitle;
+        boolean enableUserAuthor = ((discordEnableUserAuthor == null) ? EMBED_AUTHOR : discordEnableUserAuthor).equals("true");
+        boolean includeDate = ((discordIncludeDate == null) ? EMBED_DATE : discordIncludeDate).equals("true");
+        boolean enableThumbnail = ((discordEnableThumbnail == null) ? EMBED_THUMBNAIL_ENABLED : discordEnableThumbnail).equals("true");
+
+        if (config.getBoolean("discordDigestEnabled", false)) {
+            WebhookDigest.Report report = new WebhookDigest.Report(username, world, location, message);
+            long digestInterval = config.getLong("discordDigestInterval", DIGEST_INTERVAL);
+            int digestMaxReports = config.getInt("discordDigestMaxReports", DIGEST_MAX_REPORTS);
+            WebhookDispatcher.enqueueAll(() -> {
+                for (String url : webhookURLs) {
+                    WebhookDigest.add(url, report, embedColor, embedFooter, digestInterval, digestMaxReports);
+                }
+                return List.of();
+            });
+            return;
         }
+
+        DiscordWebhook.EmbedObject embedObject = getEmbedTemplate(embedTitle, embedFooter, embedColor, enableThumbnail ? embedThumbnail : null).copy();
+
+        WebhookDispatcher.enqueueAll(() -> {
+            // Offline mode servers hand out version 3 UUIDs that have no avatar, those are looked up by name.
+            UUID mojangId = playerId != null && playerId.version() == 4 ? playerId : enableUserAuthor ? DataSource.lookupUUID(username) : null;
+            String newUUID = mojangId != null ? mojangId.toString() : playerId != null ? playerId.toString() : "Not Available";
+            String userAuthorURL = mojangId != null ? "https://crafatar.com/avatars/" + mojangId : null;
+            String userAuthorIconURL = mojangId != null ? "https://crafatar.com/avatars/" + mojangId : null;
+
+            embedObject
+                .addField("Username", username, true)
+                .addField("UUID", newUUID, true)
+                .addField("World", world, true)
+                .addField("Location (X, Y, Z)", location, true)
+                .addField("Gamemode", gamemode, true)
+                .addField("Full Message", message, false);
+
+            if (enableUserAuthor) embedObject.setAuthor(username, userAuthorURL, userAuthorIconURL);
+            if (includeDate) embedObject.setTimestamp();
+
+            List<DiscordWebhook> webhooks = new ArrayList<>();
+            for (String url : webhookURLs) {
+                DiscordWebhook webhook = new DiscordWebhook(url);
+                webhook.addEmbed(embedObject);
+                webhooks.add(webhook);
+            }
+            return webhooks;
+        });
     }
 
-    private @NotNull String getUserIDFromAPI(String username) {
-        String url = "https://playerdb.co/api/player/minecraft/" + username;
-        StringBuilder content = new StringBuilder();
-        try {
-            URL playerdb = new URL(url);
-            HttpURLConnection connection = (HttpURLConnection) playerdb.openConnection();
-
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setRequestProperty("User-Agent", "BugReport/0.9.1");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-            connection.setDoOutput(true);
-
-            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            String inputLine;
-            while ((inputLine = in.readLine()) != null) {
-                content.append(inputLine);
+    /**
+     * @return the category's own webhooks, or the default webhook if it has none, followed by the
+     * global webhooks that receive every report.
+     */
+    private @NotNull List<String> getWebhookURLs(@Nullable Category category) {
+        Set<String> webhookURLs = new LinkedHashSet<>();
+        if (category != null && !category.getWebhookURLs().isEmpty()) {
+            webhookURLs.addAll(category.getWebhookURLs());
+        } else if (!webhookURL.isEmpty()) {
+            webhookURLs.add(webhookURL);
+        }
+
+        for (String globalWebhookURL : config.getStringList("discordGlobalWebhooks")) {
+            if (!globalWebhookURL.isBlank()) {
+                webhookURLs.add(globalWebhookURL.trim());
             }
-            in.close();
-            connection.disconnect();
-        } catch (Exception e) {
-            System.out.println("Error getting UUID from API: " + e.getMessage());
         }
-        return content.toString().split("\"raw_id\":\"")[1].split("\"")[0];
+        return new ArrayList<>(webhookURLs);
+    }
+
+    private DiscordWebhook.EmbedObject getEmbedTemplate(String title, String footer, Color color, @Nullable String thumbnail) {
+        String key = title + '\n' + footer + '\n' + color.getRGB() + '\n' + thumbnail;
+        if (!key.equals(embedTemplateKey)) {
+            DiscordWebhook.EmbedObject template = new DiscordWebhook.EmbedObject()
+                .setTitle(title)
+                .setFooter(footer, null)
+                .setColor(color);
+            if (thumbnail != null) template.setThumbnail(thumbnail);
+
+            embedTemplate = template;
+            embedTemplateKey = key;
+        }
+        return embedTemplate;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,258 @@
+package com.leon.bugreport.discord;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.leon.bugreport.BugReportManager.config;
+import static com.leon.bugreport.BugReportManager.plugin;
+
+/**
+ * Collects bug reports for the Discord digest mode. Instead of one message per report, every
+ * interval a single digest is written per webhook URL that lists the reports since the previous
+ * digest. Reports beyond the listed maximum are only counted.
+ * <p>
+ * Collected reports are appended to {@code outbox/digest.log} as they arrive and the log is only
+ * cleared once the digest has been written to the {@link WebhookOutbox}, so a restart or a crash
+ * between two digests does not lose them.
+ */
+public class WebhookDigest {
+    private static final String DIGEST_TITLE = "Bug Report Digest";
+    private static final int MAX_FIELDS_PER_EMBED = 25;
+    private static final int MAX_FIELD_NAME_LENGTH = 256;
+    private static final int MAX_MESSAGE_LENGTH = 200;
+    private static final long DEFAULT_INTERVAL_SECONDS = 300;
+    private static final int DEFAULT_MAX_REPORTS = 50;
+
+    public record Report(String username, String world, String location, String message) { }
+
+    private static final Map<String, Digest> digests = new LinkedHashMap<>();
+    private static File logFile;
+    private static BukkitTask flushTask;
+    private static long intervalSeconds;
+    private static int maxReportsListed = DEFAULT_MAX_REPORTS;
+
+    private static class Digest {
+        private final List<Report> reports = new ArrayList<>();
+        private int unlisted;
+        private Color color;
+        private String footer;
+    }
+
+    /**
+     * Picks up the reports collected by a previous run that were not sent yet.
+     */
+    public static synchronized void start() {
+        logFile = new File(new File(plugin.getDataFolder(), "outbox"), "digest.log");
+        if (!logFile.exists()) {
+            return;
+        }
+
+        maxReportsListed = Math.max(1, config.getInt("discordDigestMaxReports", DEFAULT_MAX_REPORTS));
+        try (BufferedReader reader = Files.newBufferedReader(logFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                collect(line);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to read the Discord digest log: " + e.getMessage());
+        }
+
+        if (!digests.isEmpty()) {
+            startFlushTask(Math.max(1, config.getLong("discordDigestInterval", DEFAULT_INTERVAL_SECONDS)));
+        }
+    }
+
+    /**
+     * Adds a report to the next digest for the given webhook. The interval and the number of listed
+     * reports are read by the caller from the config, the flush timer is restarted when the
+     * interval changes. This writes to disk, so it is called from the {@link WebhookDispatcher}
+     * staging thread rather than the server thread.
+     */
+    public static synchronized void add(@NotNull String webhookURL, @NotNull Report report, Color color, String footer, long interval, int maxListed) {
+        maxReportsListed = Math.max(1, maxListed);
+        collect(webhookURL, report, color, footer);
+        persist(webhookURL, report, color, footer);
+
+        if (plugin.isEnabled()) {
+            // While disabling, the report stays in the log and is sent after the next start.
+            startFlushTask(Math.max(1, interval));
+        }
+    }
+
+    /**
+     * Writes every collected digest to the outbox right away.
+     */
+    public static synchronized void flush() {
+        if (digests.isEmpty()) {
+            return;
+        }
+
+        List<DiscordWebhook> webhooks = new ArrayList<>();
+        for (Map.Entry<String, Digest> entry : digests.entrySet()) {
+            webhooks.add(toWebhook(entry.getKey(), entry.getValue()));
+        }
+
+        try {
+            WebhookDispatcher.write(webhooks);
+        } catch (IOException e) {
+            // Keep the log, the reports are sent again with the next digest.
+            plugin.getLogger().warning("Failed to write the Discord digest to the outbox: " + e.getMessage());
+            return;
+        }
+
+        digests.clear();
+        if (logFile != null && logFile.exists() && !logFile.delete()) {
+            plugin.getLogger().warning("Failed to clear the Discord digest log, its reports may be sent twice.");
+        }
+    }
+
+    public static synchronized void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush();
+    }
+
+    private static void collect(@NotNull String webhookURL, @NotNull Report report, Color color, String footer) {
+        Digest digest = digests.computeIfAbsent(webhookURL, url -> new Digest());
+        if (digest.reports.size() < maxReportsListed) {
+            digest.reports.add(report);
+        } else {
+            digest.unlisted++;
+        }
+        digest.color = color;
+        digest.footer = footer;
+    }
+
+    private static void collect(@NotNull String line) {
+        if (line.isBlank()) {
+            return;
+        }
+
+        try {
+            JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+            Report report = new Report(getString(json, "username"), getString(json, "world"), getString(json, "location"), getString(json, "message"));
+            Color color = json.has("color") ? new Color(json.get("color").getAsInt()) : null;
+            collect(json.get("url").getAsString(), report, color, getString(json, "footer"));
+        } catch (RuntimeException e) {
+            // A line cut off by a crash while it was being written.
+        }
+    }
+
+    private static @Nullable String getString(@NotNull JsonObject json, @NotNull String name) {
+        return json.has(name) && !json.get(name).isJsonNull() ? json.get(name).getAsString() : null;
+    }
+
+    /**
+     * Appends a report to the digest log. The write is not synced, a report is only lost if the
+     * machine itself goes down before the operating system has written it out.
+     */
+    private static void persist(@NotNull String webhookURL, @NotNull Report report, Color color, String footer) {
+        if (logFile == null) {
+            logFile = new File(new File(plugin.getDataFolder(), "outbox"), "digest.log");
+        }
+
+        JsonObject line = new JsonObject();
+        line.addProperty("url", webhookURL);
+        line.addProperty("username", report.username());
+        line.addProperty("world", report.world());
+        line.addProperty("location", report.location());
+        line.addProperty("message", report.message());
+        if (color != null) {
+            line.addProperty("color", color.getRGB() & 0xFFFFFF);
+        }
+        line.addProperty("footer", footer);
+
+        File directory = logFile.getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            plugin.getLogger().warning("Failed to create the Discord webhook outbox directory.");
+        }
+        try (FileOutputStream stream = new FileOutputStream(logFile, true)) {
+            stream.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to write the Discord digest log: " + e.getMessage());
+        }
+    }
+
+    private static void startFlushTask(long interval) {
+        if (flushTask != null && intervalSeconds == interval) {
+            return;
+        }
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+
+        intervalSeconds = interval;
+        flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, WebhookDigest::flush, interval * 20, interval * 20);
+    }
+
+    /**
+     * Builds the digest for one webhook. A new embed is started before it would pass the field
+     * limit or {@value DiscordWebhook#MAX_EMBED_CHARACTERS_PER_MESSAGE} characters, and
+     * {@link WebhookDispatcher#write(List)} packs the embeds into messages by the same limits, so
+     * a busy digest is sent as several messages instead of being rejected.
+     */
+    private static @NotNull DiscordWebhook toWebhook(String webhookURL, @NotNull Digest digest) {
+        int total = digest.reports.size() + digest.unlisted;
+        String summary = total + (total == 1 ? " new bug report" : " new bug reports") + " in the last " + formatInterval(intervalSeconds) + ".";
+        if (digest.unlisted > 0) {
+            summary += " The latest " + digest.unlisted + " are not listed.";
+        }
+
+        DiscordWebhook webhook = new DiscordWebhook(webhookURL);
+        DiscordWebhook.EmbedObject embed = null;
+        for (Report report : digest.reports) {
+            String name = truncate(report.username() + " in " + report.world() + " (" + report.location() + ")", MAX_FIELD_NAME_LENGTH);
+            String message = truncate(report.message(), MAX_MESSAGE_LENGTH);
+
+            if (embed == null || embed.getFields().size() >= MAX_FIELDS_PER_EMBED
+                    || embed.length() + name.length() + message.length() > DiscordWebhook.MAX_EMBED_CHARACTERS_PER_MESSAGE) {
+                embed = new DiscordWebhook.EmbedObject()
+                        .setColor(digest.color)
+                        .setFooter(digest.footer, null)
+                        .setTimestamp();
+                if (webhook.getEmbeds().isEmpty()) {
+                    embed.setTitle(DIGEST_TITLE).setDescription(summary);
+                }
+                webhook.addEmbed(embed);
+            }
+
+            embed.addField(name, message, false);
+        }
+        return webhook;
+    }
+
+    private static @NotNull String truncate(String value, int maxLength) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength - 3) + "..." : value;
+    }
+
+    private static @NotNull String formatInterval(long seconds) {
+        if (seconds % 3600 == 0) {
+            return seconds / 3600 == 1 ? "hour" : seconds / 3600 + " hours";
+        }
+        if (seconds % 60 == 0) {
+            return seconds / 60 == 1 ? "minute" : seconds / 60 + " minutes";
+        }
+        return seconds + " seconds";
+    }
+}
@@ -0,0 +1,395 @@
+package com.leon.bugreport.discord;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.leon.bugreport.BugReportManager.config;
+import static com.leon.bugreport.BugReportManager.plugin;
+
+/**
+ * Delivers Discord webhooks in the background so that a slow or unavailable Discord never delays
+ * the player who submitted a report or the server thread.
+ * <p>
+ * New deliveries pass through a small bounded queue. A single staging thread builds them and packs
+ * the ones that arrive within the configured batch window into as few messages as possible, up to
+ * {@value DiscordWebhook#MAX_EMBEDS_PER_MESSAGE} embeds each. Every message is then written to the
+ * {@link WebhookOutbox} of its destination before anything is sent, so it survives restarts and
+ * Discord outages.
+ * <p>
+ * Each webhook URL is a separate destination with its own outbox, backoff and rate limit. The
+ * destinations are delivered in parallel by a small shared pool, at most one request per
+ * destination at a time so that its messages stay in order. A destination that is rate limited
+ * or unreachable is simply rescheduled for later, so it never holds up the others. If the queue is
+ * full the new delivery is dropped and counted, the count is reported through the plugin metrics.
+ */
+public class WebhookDispatcher {
+    private static final int QUEUE_CAPACITY = 100;
+    private static final int DELIVERY_THREADS = 4;
+    private static final int ATTEMPTS_BEFORE_WARNING = 5;
+    private static final long INITIAL_BACKOFF_MILLIS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 60 * 1000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+    private static final int DEFAULT_BATCH_WINDOW_SECONDS = 2;
+
+    private static final BlockingQueue<Supplier<List<DiscordWebhook>>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final AtomicLong droppedDeliveries = new AtomicLong();
+    private static final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+    private static File outboxDirectory;
+    private static ScheduledExecutorService deliveryPool;
+    private static Thread worker;
+    private static volatile boolean running;
+    private static volatile long batchWindowMillis = DEFAULT_BATCH_WINDOW_SECONDS * 1000L;
+
+    // Built webhooks waiting for the batch window to close, guarded by itself.
+    private static final List<DiscordWebhook> pending = new ArrayList<>();
+    private static final Map<String, Integer> pendingEmbeds = new HashMap<>();
+    private static long flushAt;
+
+    /**
+     * A webhook URL with its own outbox and rate limit state. Only one delivery task per destination
+     * is scheduled at a time, which is what keeps its messages in order.
+     */
+    private static class Destination {
+        private final WebhookOutbox outbox;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long backoff = INITIAL_BACKOFF_MILLIS;
+        private int attempts;
+
+        private Destination(WebhookOutbox outbox) {
+            this.outbox = outbox;
+        }
+
+        private void resetBackoff() {
+            backoff = INITIAL_BACKOFF_MILLIS;
+            attempts = 0;
+        }
+
+        /**
+         * @return how long to wait before retrying, Discord's own retry-after if it sent one.
+         */
+        private long failed(long retryAfterMillis) {
+            attempts++;
+            if (attempts == ATTEMPTS_BEFORE_WARNING) {
+                plugin.getLogger().warning("A Discord webhook is unreachable, its bug report notifications are kept in the outbox and retried every " + (MAX_BACKOFF_MILLIS / 1000) + " seconds.");
+            }
+
+            long wait = retryAfterMillis > 0 ? retryAfterMillis : backoff;
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            return Math.min(wait, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    /**
+     * Queues a webhook for delivery. The webhook is built on the staging thread, so the supplier may
+     * do blocking work but must not touch the Bukkit API.
+     *
+     * @return false if the queue was full and the delivery was dropped.
+     */
+    public static boolean enqueue(@NotNull Supplier<DiscordWebhook> webhook) {
+        return enqueueAll(() -> List.of(webhook.get()));
+    }
+
+    /**
+     * Queues several webhooks that are built together, for example the same report for every
+     * destination it is routed to.
+     *
+     * @return false if the queue was full and the deliveries were dropped.
+     */
+    public static boolean enqueueAll(@NotNull Supplier<List<DiscordWebhook>> webhooks) {
+        start();
+        batchWindowMillis = Math.max(0, config.getInt("discordBatchWindowSeconds", DEFAULT_BATCH_WINDOW_SECONDS)) * 1000L;
+        if (!queue.offer(webhooks)) {
+            droppedDeliveries.incrementAndGet();
+            plugin.getLogger().warning("Discord webhook queue is full, a bug report notification was dropped.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes webhooks straight to the outboxes of their destinations, skipping the queue and the
+     * batch window, and schedules their delivery. They are packed with the same limits as queued
+     * webhooks. Used by callers that may only forget their data once it is on disk.
+     *
+     * @throws IOException if a message could not be written; the others may have been.
+     */
+    public static void write(@NotNull List<DiscordWebhook> webhooks) throws IOException {
+        start();
+        IOException failure = null;
+        Set<Destination> written = new HashSet<>();
+        for (DiscordWebhook webhook : DiscordWebhook.batch(webhooks)) {
+            try {
+                Destination destination = getDestination(webhook.getUrl());
+                destination.outbox.append(webhook.getUrl(), webhook.toJson());
+                written.add(destination);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        for (Destination destination : written) {
+            schedule(destination, 0);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Starts the staging thread and the delivery pool, and resends anything left in the outboxes by
+     * a previous run.
+     */
+    public static synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        outboxDirectory = new File(plugin.getDataFolder(), "outbox");
+        AtomicInteger threadCount = new AtomicInteger();
+        deliveryPool = Executors.newScheduledThreadPool(DELIVERY_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "BugReport-Discord-Delivery-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        loadDestinations();
+
+        worker = new Thread(WebhookDispatcher::run, "BugReport-Discord-Webhook");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the staging thread and the delivery pool. Queued deliveries are written to the outboxes
+     * so that they are sent after the next start.
+     */
+    public static synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Supplier<List<DiscordWebhook>>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(WebhookDispatcher::stage);
+        flushPending();
+
+        deliveryPool.shutdownNow();
+        try {
+            deliveryPool.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        destinations.clear();
+    }
+
+    /**
+     * @return the number of deliveries dropped since the last call.
+     */
+    public static long drainDroppedCount() {
+        return droppedDeliveries.getAndSet(0);
+    }
+
+    private static void run() {
+        try {
+            while (running) {
+                Supplier<List<DiscordWebhook>> delivery = queue.poll(idleWaitMillis(), TimeUnit.MILLISECONDS);
+                if (delivery != null) {
+                    stage(delivery);
+                }
+                flushPendingIfDue();
+            }
+        } catch (InterruptedException e) {
+            // Shutting down, the queue is persisted by shutdown().
+        }
+    }
+
+    /**
+     * Picks up the outboxes of earlier runs that still have undelivered messages.
+     */
+    private static void loadDestinations() {
+        File[] directories = outboxDirectory.listFiles(File::isDirectory);
+        if (directories == null) {
+            return;
+        }
+
+        for (File directory : directories) {
+            WebhookOutbox outbox = new WebhookOutbox(directory);
+            WebhookOutbox.Entry entry = outbox.peek();
+            if (entry != null) {
+                Destination destination = new Destination(outbox);
+                destinations.putIfAbsent(entry.url(), destination);
+                schedule(destination, 0);
+            }
+        }
+    }
+
+    private static @NotNull Destination getDestination(@NotNull String url) {
+        return destinations.computeIfAbsent(url, key -> new Destination(new WebhookOutbox(new File(outboxDirectory, getDirectoryName(key)))));
+    }
+
+    /**
+     * Webhook URLs contain their token, so the outbox directory is named after a hash of the URL.
+     */
+    private static @NotNull String getDirectoryName(@NotNull String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(url.hashCode());
+        }
+    }
+
+    /**
+     * Builds a queued delivery and adds it to the current batch. The batch is written to the
+     * outboxes once the batch window has passed or it holds enough embeds for a full message to
+     * one of its destinations.
+     */
+    private static void stage(@NotNull Supplier<List<DiscordWebhook>> delivery) {
+        List<DiscordWebhook> webhooks;
+        try {
+            webhooks = delivery.get();
+        } catch (Exception e) {
+            plugin.getLogger().warning("Error queueing Discord webhook: " + e.getMessage());
+            return;
+        }
+
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                flushAt = System.currentTimeMillis() + batchWindowMillis;
+            }
+
+            boolean full = batchWindowMillis == 0;
+            for (DiscordWebhook webhook : webhooks) {
+                pending.add(webhook);
+                int embeds = pendingEmbeds.merge(webhook.getUrl(), webhook.getEmbeds().size(), Integer::sum);
+                full |= embeds >= DiscordWebhook.MAX_EMBEDS_PER_MESSAGE;
+            }
+
+            if (full) {
+                flushPending();
+            }
+        }
+    }
+
+    /**
+     * @return how long the staging thread may wait for new deliveries before the current batch is due.
+     */
+    private static long idleWaitMillis() {
+        synchronized (pending) {
+            return pending.isEmpty() ? 1000 : Math.max(1, flushAt - System.currentTimeMillis());
+        }
+    }
+
+    private static void flushPendingIfDue() {
+        synchronized (pending) {
+            if (!pending.isEmpty() && System.currentTimeMillis() >= flushAt) {
+                flushPending();
+            }
+        }
+    }
+
+    private static void flushPending() {
+        Set<Destination> written = new HashSet<>();
+        synchronized (pending) {
+            for (DiscordWebhook webhook : DiscordWebhook.batch(pending)) {
+                try {
+                    Destination destination = getDestination(webhook.getUrl());
+                    destination.outbox.append(webhook.getUrl(), webhook.toJson());
+                    written.add(destination);
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Error queueing Discord webhook: " + e.getMessage());
+                }
+            }
+            pending.clear();
+            pendingEmbeds.clear();
+        }
+
+        for (Destination destination : written) {
+            schedule(destination, 0);
+        }
+    }
+
+    /**
+     * Schedules the next delivery for a destination, unless one is already scheduled. A delivery
+     * that is already waiting out a rate limit is not brought forward.
+     */
+    private static void schedule(@NotNull Destination destination, long delayMillis) {
+        if (!running || !destination.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            deliveryPool.schedule(() -> deliver(destination), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            destination.scheduled.set(false);
+        }
+    }
+
+    private static void deliver(@NotNull Destination destination) {
+        long nextAttemptMillis = -1;
+        try {
+            WebhookOutbox.Entry entry = destination.outbox.peek();
+            if (entry != null) {
+                nextAttemptMillis = attempt(destination, entry);
+            }
+        } finally {
+            destination.scheduled.set(false);
+        }
+
+        if (nextAttemptMillis >= 0) {
+            schedule(destination, nextAttemptMillis);
+        } else if (destination.outbox.peek() != null) {
+            // Written while this delivery was finishing up.
+            schedule(destination, 0);
+        }
+    }
+
+    /**
+     * Sends the oldest message of a destination once.
+     *
+     * @return how long the destination has to wait before its next request.
+     */
+    private static long attempt(@NotNull Destination destination, @NotNull WebhookOutbox.Entry entry) {
+        try {
+            DiscordWebhook.Response response = DiscordWebhook.post(entry.url(), entry.payload());
+            if (response.isSuccess()) {
+                destination.outbox.markDelivered(entry);
+                destination.resetBackoff();
+                // Discord told us this was the last request of the current bucket.
+                return response.retryAfterMillis();
+            }
+            if (!response.isRetryable()) {
+                plugin.getLogger().warning("Discord rejected a bug report notification with status " + response.statusCode() + ".");
+                destination.outbox.markDelivered(entry);
+                destination.resetBackoff();
+                return 0;
+            }
+
+            return destination.failed(response.isRateLimited() ? response.retryAfterMillis() : 0);
+        } catch (Exception e) {
+            if (destination.attempts < ATTEMPTS_BEFORE_WARNING) {
+                plugin.getLogger().warning("Error sending bug report to Discord (attempt " + (destination.attempts + 1) + "): " + e.getMessage());
+            }
+            return destination.failed(0);
+        }
+    }
+}
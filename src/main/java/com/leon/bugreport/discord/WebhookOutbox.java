@@ -0,0 +1,211 @@
+package com.leon.bugreport.discord;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import static com.leon.bugreport.BugReportManager.plugin;
+
+/**
+ * Append-only file of webhook payloads that still have to be delivered to one Discord webhook.
+ * <p>
+ * Every webhook URL has its own outbox in {@code outbox/<url-hash>/}, where {@code <url-hash>} is
+ * the first 16 hex digits of the URL's SHA-256 hash (see {@link WebhookDispatcher}). Every payload
+ * is written to {@code discord-webhooks.log} in that directory before it is sent, one JSON object
+ * per line, and the ID of the last delivered entry is kept in {@code discord-webhooks.ack} next to
+ * it. Each line also holds the webhook URL, so a stuck outbox can be matched to its webhook.
+ * Entries are handed out strictly in order, so after a restart or an outage delivery continues
+ * with the oldest undelivered payload. Only the entry that is being delivered is held in memory.
+ * Delivered entries are compacted away whenever the outbox runs empty, on startup, and once the
+ * delivered part of the log passes {@value #COMPACT_THRESHOLD_BYTES} bytes or
+ * {@value #COMPACT_THRESHOLD_ENTRIES} entries, so a long outage does not leave an ever growing
+ * prefix in front of the pending entries.
+ */
+public class WebhookOutbox {
+    public record Entry(long id, String url, String payload, long endOffset) { }
+
+    private static final long COMPACT_THRESHOLD_BYTES = 1024 * 1024;
+    private static final int COMPACT_THRESHOLD_ENTRIES = 1000;
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final File logFile;
+    private final File ackFile;
+    private long lastId;
+    private long deliveredId;
+    private long readOffset;
+    private int deliveredSinceCompaction;
+    private Entry head;
+
+    public WebhookOutbox(@NotNull File directory) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            plugin.getLogger().warning("Failed to create the Discord webhook outbox directory.");
+        }
+
+        this.logFile = new File(directory, "discord-webhooks.log");
+        this.ackFile = new File(directory, "discord-webhooks.ack");
+        load();
+    }
+
+    public synchronized void append(String url, String payload) throws IOException {
+        JsonObject line = new JsonObject();
+        line.addProperty("id", lastId + 1);
+        line.addProperty("url", url);
+        line.addProperty("payload", payload);
+
+        try (FileOutputStream stream = new FileOutputStream(logFile, true)) {
+            stream.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            stream.getFD().sync();
+        }
+        lastId++;
+    }
+
+    /**
+     * @return the oldest undelivered entry, or null if everything has been delivered. The entry is
+     * kept until it is marked as delivered, so retrying it does not read the log again.
+     */
+    public synchronized @Nullable Entry peek() {
+        if (deliveredId >= lastId) {
+            return null;
+        }
+        if (head != null) {
+            return head;
+        }
+
+        try (FileInputStream file = new FileInputStream(logFile)) {
+            file.getChannel().position(readOffset);
+            InputStream stream = new BufferedInputStream(file, READ_BUFFER_SIZE);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long offset = readOffset;
+
+            int read;
+            while ((read = stream.read()) != -1) {
+                offset++;
+                if (read != '\n') {
+                    line.write(read);
+                    continue;
+                }
+
+                head = parse(line.toString(StandardCharsets.UTF_8), offset);
+                if (head != null) {
+                    return head;
+                }
+                // Skip a line that was cut off by a crash while it was being written.
+                readOffset = offset;
+                line.reset();
+            }
+
+            head = parse(line.toString(StandardCharsets.UTF_8), offset);
+            return head;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to read the Discord webhook outbox: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Marks an entry returned by {@link #peek()} as delivered, or as given up on.
+     */
+    public synchronized void markDelivered(@NotNull Entry entry) {
+        deliveredId = entry.id();
+        readOffset = entry.endOffset();
+        deliveredSinceCompaction++;
+        head = null;
+
+        try {
+            writeAck();
+            if (deliveredId >= lastId || readOffset >= COMPACT_THRESHOLD_BYTES || deliveredSinceCompaction >= COMPACT_THRESHOLD_ENTRIES) {
+                compact();
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to update the Discord webhook outbox: " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        try {
+            if (ackFile.exists()) {
+                deliveredId = Long.parseLong(Files.readString(ackFile.toPath(), StandardCharsets.UTF_8).trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+            plugin.getLogger().warning("Failed to read the Discord webhook outbox acknowledgement, resending all pending webhooks.");
+            deliveredId = 0;
+        }
+
+        lastId = deliveredId;
+        readOffset = 0;
+        if (!logFile.exists()) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(logFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Entry entry = parse(line, 0);
+                if (entry != null) {
+                    lastId = Math.max(lastId, entry.id());
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to read the Discord webhook outbox: " + e.getMessage());
+            return;
+        }
+
+        try {
+            compact();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to compact the Discord webhook outbox: " + e.getMessage());
+        }
+
+        if (lastId > deliveredId) {
+            plugin.getLogger().info("Resending " + (lastId - deliveredId) + " Discord webhooks that were not delivered before.");
+        }
+    }
+
+    /**
+     * Rewrites the log with only the undelivered entries.
+     */
+    private void compact() throws IOException {
+        File compacted = new File(logFile.getParentFile(), logFile.getName() + ".tmp");
+        try (BufferedReader reader = logFile.exists() ? Files.newBufferedReader(logFile.toPath(), StandardCharsets.UTF_8) : new BufferedReader(Reader.nullReader());
+             BufferedWriter writer = Files.newBufferedWriter(compacted.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Entry entry = parse(line, 0);
+                if (entry != null && entry.id() > deliveredId) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        }
+
+        Files.move(compacted.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        readOffset = 0;
+        deliveredSinceCompaction = 0;
+        head = null;
+    }
+
+    private void writeAck() throws IOException {
+        File temporary = new File(ackFile.getParentFile(), ackFile.getName() + ".tmp");
+        Files.writeString(temporary.toPath(), String.valueOf(deliveredId), StandardCharsets.UTF_8);
+        Files.move(temporary.toPath(), ackFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static @Nullable Entry parse(String line, long endOffset) {
+        if (line.isBlank()) {
+            return null;
+        }
+
+        try {
+            JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+            return new Entry(json.get("id").getAsLong(), json.get("url").getAsString(), json.get("payload").getAsString(), endOffset);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -5,7 +5,7 @@ import org.bukkit.OfflinePlayer;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
-import static com.leon.bugreport.BugReportDatabase.*;
+import static com.leon.bugreport.BugReportManager.bugReports;
 
 public class BugPlaceholders extends PlaceholderExpansion {
 	private final Plugin plugin;
@@ -43,13 +43,13 @@ public class BugPlaceholders extends PlaceholderExpansion {
 	public String onRequest(OfflinePlayer player, @NotNull String params){
 		switch (params) {
 			case "totalBugReports" -> {
-				return String.valueOf(loadBugReportCount());
+				return String.valueOf(bugReports.totalCount());
 			}
 			case "totalArchivedBugReports" -> {
-				return String.valueOf(loadArchivedBugReportCount());
+				return String.valueOf(bugReports.count(true));
 			}
 			case "totalNonArchivedBugReports" -> {
-				return String.valueOf(loadNonArchivedBugReportCount());
+				return String.valueOf(bugReports.count(false));
 			}
 			default -> {
 				return null;
@@ -9,12 +9,13 @@ import com.djrapitops.plan.extension.icon.Color;
 import com.djrapitops.plan.extension.icon.Family;
 import com.djrapitops.plan.extension.icon.Icon;
 import com.djrapitops.plan.extension.table.Table;
+import com.leon.bugreport.BugReport;
 import com.leon.bugreport.BugReportDatabase;
 
 import java.util.List;
 import java.util.UUID;
 
-import static com.leon.bugreport.BugReportDatabase.*;
+import static com.leon.bugreport.BugReportManager.bugReports;
 
 @PluginInfo(
 	name = "Bug Report Plugin",
@@ -23,6 +24,8 @@ import static com.leon.bugreport.BugReportDatabase.*;
 	color = Color.YELLOW
 )
 public class BugReportExtension implements DataExtension {
+	private static final int SERVER_TABLE_ROWS = 50;
+
 	@Override
 	public CallEvents[] callExtensionMethodsOn() {
 		return new CallEvents[]{
@@ -44,7 +47,7 @@ public class BugReportExtension implements DataExtension {
 			showInPlayerTable = true
 	)
 	public long bugReportCount(UUID playerUUID) {
-		return loadBugReportCountForPlayer(playerUUID);
+		return bugReports.getPlayerCounts(playerUUID).total();
 	}
 
 	@NumberProvider(
@@ -56,7 +59,7 @@ public class BugReportExtension implements DataExtension {
 			showInPlayerTable = true
 	)
 	public long archivedBugReportCount(UUID playerUUID) {
-		return loadArchivedBugReportCountForPlayer(playerUUID);
+		return bugReports.getPlayerCounts(playerUUID).archived();
 	}
 
 	@NumberProvider(
@@ -68,7 +71,7 @@ public class BugReportExtension implements DataExtension {
 			showInPlayerTable = true
 	)
 	public long nonArchivedBugReportCount(UUID playerUUID) {
-		return loadNonArchivedBugReportCountForPlayer(playerUUID);
+		return bugReports.getPlayerCounts(playerUUID).nonArchived();
 	}
 
 	@TableProvider(tableColor = Color.AMBER)
@@ -95,11 +98,9 @@ public class BugReportExtension implements DataExtension {
 				.columnOne("Bug Reporter", new Icon(Family.SOLID, "gavel", Color.AMBER))
 				.columnTwo("Reported Bug", new Icon(Family.SOLID, "bug", Color.AMBER));
 
-		List<BugReportPair<String, String>> allBugReports = BugReportDatabase.loadBugReportCountsPerPlayer();
-		for (BugReportPair<String, String> report : allBugReports) {
-			String reporter = report.getFirst();
-			String bugMessage = report.getSecond();
-			bugReportServer.addRow(reporter, bugMessage);
+		// Only the most recent reports, Plan stores every row of the table on each refresh.
+		for (BugReport report : bugReports.latest(SERVER_TABLE_ROWS)) {
+			bugReportServer.addRow(report.username(), report.message());
 		}
 
 		return bugReportServer.build();
@@ -3,13 +3,29 @@ package com.leon.bugreport.extensions;
 import com.djrapitops.plan.capability.CapabilityService;
 import com.djrapitops.plan.extension.Caller;
 import com.djrapitops.plan.extension.ExtensionService;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.util.ArrayList;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static com.leon.bugreport.BugReportManager.plugin;
+
+/**
+ * Pushes changed report counts to Plan. Changes only mark the player as dirty; a timer flushes one
+ * server update plus one update per dirty player, so a burst of reports, archives or deletes
+ * results in a single refresh per player instead of one per change.
+ */
 public class PlanHook {
+	private static final long FLUSH_INTERVAL_TICKS = 20L * 30;
+
 	private static PlanHook instance;
 	private Optional<Caller> caller;
+	private final Map<UUID, String> dirtyPlayers = new ConcurrentHashMap<>();
+	private BukkitTask flushTask;
 
 	private PlanHook() {
 		caller = Optional.empty();
@@ -22,17 +38,36 @@ public class PlanHook {
 		return instance;
 	}
 
-	public void updateHook(UUID PlayerID, String PlayerName) {
-		caller.ifPresent(c -> {
-			c.updateServerData();
-			c.updatePlayerData(PlayerID, PlayerName);
-		});
+	public void markDirty(UUID playerID, String playerName) {
+		if (caller.isPresent()) {
+			dirtyPlayers.put(playerID, playerName);
+		}
 	}
 
 	public void hookIntoPlan() {
 		if (!areAllCapabilitiesAvailable()) return;
 		registerDataExtension();
 		listenForPlanReloads();
+		startFlushTask();
+	}
+
+	private void startFlushTask() {
+		if (flushTask != null) return;
+		flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
+	}
+
+	private void flush() {
+		if (dirtyPlayers.isEmpty()) return;
+
+		caller.ifPresent(c -> {
+			c.updateServerData();
+			for (UUID playerID : new ArrayList<>(dirtyPlayers.keySet())) {
+				String playerName = dirtyPlayers.remove(playerID);
+				if (playerName != null) {
+					c.updatePlayerData(playerID, playerName);
+				}
+			}
+		});
 	}
 
 	private boolean areAllCapabilitiesAvailable() {
@@ -0,0 +1,86 @@
+package com.leon.bugreport.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The holder of every inventory this plugin opens. It identifies the view by its type instead of
+ * its title, carries the state the view was built from, and maps slots to the action a click on
+ * them runs, so {@link GUIListener} can dispatch a click without looking at titles or item names.
+ */
+public class GUIHolder implements InventoryHolder {
+	public enum Type {
+		REPORT_LIST,
+		ARCHIVED_REPORT_LIST,
+		REPORT_DETAILS,
+		ARCHIVED_REPORT_DETAILS,
+		SETTINGS,
+		LANGUAGE,
+		OTHER_SETTINGS,
+		CATEGORY_SELECTION
+	}
+
+	private final Type type;
+	private final Integer reportId;
+	private final Map<Integer, Consumer<Player>> actions = new HashMap<>();
+	private Inventory inventory;
+
+	public GUIHolder(@NotNull Type type) {
+		this(type, null);
+	}
+
+	public GUIHolder(@NotNull Type type, @Nullable Integer reportId) {
+		this.type = type;
+		this.reportId = reportId;
+	}
+
+	/**
+	 * Creates the inventory that belongs to this holder.
+	 */
+	public @NotNull Inventory createInventory(int size, @NotNull String title) {
+		inventory = Bukkit.createInventory(this, size, title);
+		return inventory;
+	}
+
+	@Override
+	public @NotNull Inventory getInventory() {
+		return inventory;
+	}
+
+	public @NotNull Type getType() {
+		return type;
+	}
+
+	/**
+	 * The report shown by a details view, null for every other view.
+	 */
+	public @Nullable Integer getReportId() {
+		return reportId;
+	}
+
+	public void setAction(int slot, @NotNull Consumer<Player> action) {
+		actions.put(slot, action);
+	}
+
+	public void removeAction(int slot) {
+		actions.remove(slot);
+	}
+
+	/**
+	 * Runs the action of the given slot, if it has one.
+	 */
+	public void click(@NotNull Player player, int slot) {
+		Consumer<Player> action = actions.get(slot);
+		if (action != null) {
+			action.accept(player);
+		}
+	}
+}
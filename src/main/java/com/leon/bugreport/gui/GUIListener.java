@@ -0,0 +1,37 @@
+package com.leon.bugreport.gui;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The single listener for clicks in the plugin's inventories. Inventories of other plugins and of
+ * containers are rejected by the holder check alone, so they never pay for any string work.
+ */
+public class GUIListener implements Listener {
+	@EventHandler(priority = EventPriority.NORMAL)
+	public void onInventoryClick(@NotNull InventoryClickEvent event) {
+		if (!(event.getInventory().getHolder() instanceof GUIHolder holder)) {
+			return;
+		}
+
+		event.setCancelled(true);
+
+		if (!(event.getWhoClicked() instanceof Player player) || event.getClickedInventory() != event.getInventory()) {
+			return;
+		}
+
+		holder.click(player, event.getSlot());
+	}
+
+	@EventHandler(priority = EventPriority.NORMAL)
+	public void onInventoryDrag(@NotNull InventoryDragEvent event) {
+		if (event.getInventory().getHolder() instanceof GUIHolder) {
+			event.setCancelled(true);
+		}
+	}
+}
@@ -1,7 +1,7 @@
 package com.leon.bugreport.gui;
 
+import com.leon.bugreport.BugReport;
 import com.leon.bugreport.BugReportLanguage;
-import com.leon.bugreport.BugReportManager;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -16,6 +16,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static com.leon.bugreport.API.DataSource.getPlayerHead;
 import static com.leon.bugreport.BugReportManager.*;
@@ -64,7 +65,7 @@ public class bugreportGUI {
 
 	public static void openBugReportDetailsGUI(
 			Player player,
-			String report,
+			BugReport report,
 			Integer reportIDGUI,
 			Boolean isArchivedGUI
 	) {
@@ -83,29 +84,34 @@ public class bugreportGUI {
 			guiSize = 45;
 		}
 
-		Inventory gui = Bukkit.createInventory(player, guiSize, ChatColor.YELLOW + bugReportTitle + reportIDGUI);
+		GUIHolder holder = new GUIHolder(isArchivedGUI ? GUIHolder.Type.ARCHIVED_REPORT_DETAILS : GUIHolder.Type.REPORT_DETAILS, reportIDGUI);
+		Inventory gui = holder.createInventory(guiSize, ChatColor.YELLOW + bugReportTitle + reportIDGUI);
 
 		if (guiConfig == null || !validateGUIConfig(guiConfig)) {
-			setupDefaultGUI(gui, player, report, reportIDGUI, isArchivedGUI);
+			setupDefaultGUI(gui, holder, player, report, isArchivedGUI);
 		} else {
-			setupGUIFromConfig(gui, player, guiConfig, report, reportIDGUI, isArchivedGUI);
+			setupGUIFromConfig(gui, holder, player, guiConfig, report, isArchivedGUI);
 		}
 
-		player.openInventory(gui);
-		Bukkit.getPluginManager().registerEvents(new BugReportDetailsListener(gui, reportIDGUI), plugin);
+		BugReportDetailsListener.open(player, gui, reportIDGUI, isArchivedGUI);
 	}
 
 	private static void setupGUIFromConfig(
 			Inventory gui,
+			GUIHolder holder,
 			Player player,
 			@NotNull YamlConfiguration guiConfig,
-			String report,
-			Integer reportIDGUI,
+			BugReport report,
 			Boolean isArchivedGUI
 	) {
 		if (!validateGUIConfig(guiConfig)) {
 			Bukkit.getLogger().severe("The layout of the customGUI.yml file is incorrect. Falling back to the default layout.");
-			setupDefaultGUI(gui, player, report, reportIDGUI, isArchivedGUI);
+			setupDefaultGUI(gui, holder, player, report, isArchivedGUI);
+			return;
+		}
+
+		if (report == null) {
+			player.sendMessage(pluginColor + pluginTitle + ChatColor.RED + " Error 101: Report is null. Please report this to the plugin developer.");
 			return;
 		}
 
@@ -133,10 +139,9 @@ public class bugreportGUI {
 					Object textureObj = itemMap.get("texture");
 					String texture = textureObj != null ? textureObj.toString() : "";
 
-					Map<String, String> reportDetails = parseReportDetails(report);
-
-					ItemStack itemStack = createItemForReportDetail(bugReportItem, material, texture, reportDetails, reportIDGUI, isArchivedGUI);
+					ItemStack itemStack = createItemForReportDetail(bugReportItem, material, texture, report, isArchivedGUI, updatedItem -> gui.setItem(slot, updatedItem));
 					gui.setItem(slot, itemStack);
+					setDetailAction(holder, slot, bugReportItem);
 				} catch (IllegalArgumentException e) {
 					Bukkit.getLogger().warning("Error parsing material or slot number: " + e.getMessage());
 				}
@@ -144,6 +149,23 @@ public class bugreportGUI {
 		}
 	}
 
+	/**
+	 * Binds the button items of the details view to their action. Every other item has none.
+	 *
+	 * @param holder The holder of the details view.
+	 * @param slot The slot of the item.
+	 * @param bugReportItemKey The key of the bug report item.
+	 */
+	private static void setDetailAction(@NotNull GUIHolder holder, int slot, @NotNull String bugReportItemKey) {
+		switch (bugReportItemKey) {
+			case "BugReportBack" -> holder.setAction(slot, BugReportDetailsListener::back);
+			case "BugReportArchive" -> holder.setAction(slot, player -> BugReportDetailsListener.setArchived(player, true));
+			case "BugReportUnArchive" -> holder.setAction(slot, player -> BugReportDetailsListener.setArchived(player, false));
+			case "BugReportDelete" -> holder.setAction(slot, BugReportDetailsListener::delete);
+			case "BugReportLocation" -> holder.setAction(slot, BugReportDetailsListener::teleport);
+		}
+	}
+
 	/**
 	 * Validates the custom GUI configuration.
 	 *
@@ -199,45 +221,49 @@ public class bugreportGUI {
 		return true;
 	}
 
+	private static @NotNull ItemStack createReporterItem(@NotNull ItemStack playerHead, String bugReportItemKey, String username) {
+		ItemMeta meta = playerHead.getItemMeta();
+		if (meta != null) {
+			meta.setDisplayName(ChatColor.YELLOW + bugReportItems.getOrDefault(bugReportItemKey, "Unknown Item"));
+			List<String> lore = new ArrayList<>();
+			lore.add(ChatColor.WHITE + username);
+			meta.setLore(lore);
+			playerHead.setItemMeta(meta);
+		}
+		return playerHead;
+	}
+
 	private static @NotNull ItemStack createItemForReportDetail(
 			String bugReportItemKey,
 			Material defaultMaterial,
 			@Nullable String textureBase64,
-			@NotNull Map<String, String> reportDetails,
-			Integer reportIDGUI,
-			Boolean isArchivedGUI
+			@NotNull BugReport report,
+			Boolean isArchivedGUI,
+			@NotNull Consumer<ItemStack> onItemUpdated
 	) {
 		String reportDetailKey = deriveReportDetailKey(bugReportItemKey);
 		var ref = new Object() {
-			String detailValue = reportDetails.getOrDefault(reportDetailKey, "N/A");
+			String detailValue = getReportDetail(report, reportDetailKey);
 		};
 		ItemStack item;
 
 		switch (bugReportItemKey) {
-			case "BugReportTimestamp" -> ref.detailValue = translateTimestampToDate(Long.parseLong(ref.detailValue));
+			case "BugReportTimestamp" -> ref.detailValue = translateTimestampToDate(report.timestamp());
 			case "BugReportCategory" -> {
-				String categoryID = reportDetails.getOrDefault("Category ID", "N/A");
-				if (!"N/A".equals(categoryID)) {
+				Integer categoryID = report.categoryId();
+				if (categoryID != null) {
 					List<Map<?, ?>> categoryList = config.getMapList("reportCategories");
 					ref.detailValue = categoryList.stream()
-							.filter(categoryMap -> categoryID.equals(String.valueOf(categoryMap.get("id"))))
+							.filter(categoryMap -> String.valueOf(categoryID).equals(String.valueOf(categoryMap.get("id"))))
 							.map(categoryMap -> (String) categoryMap.get("name"))
 							.findFirst()
 							.orElse("Unknown Category");
 				}
 			}
 			case "BugReporter" -> {
-				String username = reportDetails.get("Username");
-				item = getPlayerHead(username);
-				ItemMeta meta = item.getItemMeta();
-				if (meta != null) {
-					meta.setDisplayName(ChatColor.YELLOW + bugReportItems.getOrDefault(bugReportItemKey, "Unknown Item"));
-					List<String> lore = new ArrayList<>();
-					lore.add(ChatColor.WHITE + username);
-					meta.setLore(lore);
-					item.setItemMeta(meta);
-				}
-				return item;
+				String username = report.username();
+				item = getPlayerHead(report, loadedHead -> onItemUpdated.accept(createReporterItem(loadedHead, bugReportItemKey, username)));
+				return createReporterItem(item, bugReportItemKey, username);
 			}
 			case "BugReportStatus" -> ref.detailValue = isArchivedGUI ? "Archived" : "Active";
 			case "BugReportBack", "BugReportDelete", "BugReportArchive", "BugReportUnArchive" -> ref.detailValue = null;
@@ -300,56 +326,49 @@ public class bugreportGUI {
 			"BugReportDelete").contains(bugReportItemKey);
 	}
 
-	private static @NotNull Map<String, String> parseReportDetails(@NotNull String report) {
-		Map<String, String> details = new HashMap<>();
-		String[] lines = report.split("\n");
-		for (String line : lines) {
-			String[] parts = line.split(":", 2);
-			if (parts.length == 2) {
-				String key = parts[0].trim();
-				String value = parts[1].trim();
-				details.put(key, value);
-			}
-		}
-		return details;
+	/**
+	 * Returns the display value of a report detail key as produced by {@link #deriveReportDetailKey(String)}.
+	 *
+	 * @param report The bug report.
+	 * @param reportDetailKey The report detail key.
+	 * @return The value of the detail, or "N/A" if the report has no value for it.
+	 */
+	private static @NotNull String getReportDetail(@NotNull BugReport report, @NotNull String reportDetailKey) {
+		Object value = switch (reportDetailKey) {
+			case "Username" -> report.username();
+			case "UUID" -> report.playerId();
+			case "World" -> report.world();
+			case "Full Message" -> report.message();
+			case "Category ID" -> report.categoryId();
+			case "Timestamp" -> report.timestamp();
+			case "Location" -> report.location() != null ? report.location().serialize() : null;
+			case "Gamemode" -> report.gamemode();
+			default -> null;
+		};
+		return value != null ? value.toString() : "N/A";
 	}
 
-	public static void setupDefaultGUI(Inventory gui, Player player, String report, Integer reportIDGUI, Boolean isArchivedGUI) {
+	public static void setupDefaultGUI(Inventory gui, GUIHolder holder, Player player, BugReport report, Boolean isArchivedGUI) {
 		if (report == null) {
 			player.sendMessage(pluginColor + pluginTitle + ChatColor.RED + " Error 101: Report is null. Please report this to the plugin developer.");
 			return;
 		}
 
-		String[] reportLines = report.split("\n");
-		Map<String, String> reportData = new HashMap<>();
-
-		for (String line : reportLines) {
-			int colonIndex = line.indexOf(":");
-			if (colonIndex >= 0) {
-				String key = line.substring(0, colonIndex).trim();
-				String value = line.substring(colonIndex + 1).trim();
-				reportData.put(key, value);
-			}
-		}
-
-		String username = reportData.get("Username");
-		String uuid = reportData.get("UUID");
-		String world = reportData.get("World");
-		String fullMessage = reportData.get("Full Message");
-		String category = reportData.get("Category ID");
+		String username = report.username();
+		String uuid = report.playerId().toString();
+		String world = report.world();
+		String fullMessage = report.message();
+		Integer category = report.categoryId();
 		ItemStack emptyItem = createEmptyItem();
-		String location = reportData.get("Location");
-		String gamemode = reportData.get("Gamemode");
+		String location;
+		String gamemode = report.gamemode();
 		String locationTitle;
 
-		if (location == null || location.equals("null")) {
-			location = "Not found";
-		}
-
-		if (location.length() - location.replace(",", "").length() != 3) {
+		if (report.location() == null) {
 			location = "Not found";
 			locationTitle = "Location";
 		} else {
+			location = report.location().serialize();
 			locationTitle = "Location " + ChatColor.BOLD + "(Click to teleport)";
 		}
 
@@ -357,8 +376,8 @@ public class bugreportGUI {
 			gamemode = "Unknown";
 		}
 
-		ItemStack usernameItem = getPlayerHead(username);
-		String timestampToDate = translateTimestampToDate(Long.parseLong(reportData.get("Timestamp")));
+		ItemStack usernameItem = getPlayerHead(report, loadedHead -> gui.setItem(1, loadedHead));
+		String timestampToDate = translateTimestampToDate(report.timestamp());
 
 		ItemStack uuidItem = createInfoItem(Material.NAME_TAG, ChatColor.GOLD + "UUID", ChatColor.WHITE + uuid);
 		ItemStack worldItem = createInfoItem(Material.GRASS_BLOCK, ChatColor.GOLD + "World", ChatColor.WHITE + world);
@@ -392,11 +411,18 @@ public class bugreportGUI {
 		gui.setItem(40, backButton);
 		gui.setItem(42, deleteButton);
 
-		if (!"null".equals(category) && !"".equals(category)) {
+		setDetailAction(holder, 38, !isArchivedGUI ? "BugReportArchive" : "BugReportUnArchive");
+		setDetailAction(holder, 40, "BugReportBack");
+		setDetailAction(holder, 42, "BugReportDelete");
+		if (report.location() != null) {
+			setDetailAction(holder, 24, "BugReportLocation");
+		}
+
+		if (category != null) {
 			List<Map<?, ?>> categoryList = config.getMapList("reportCategories");
 
 			Optional<String> categoryNameOptional = categoryList.stream()
-					.filter(categoryMap -> Integer.parseInt(categoryMap.get("id").toString()) == Integer.parseInt(category))
+					.filter(categoryMap -> Integer.parseInt(categoryMap.get("id").toString()) == category)
 					.map(categoryMap -> categoryMap.get("name").toString())
 					.findFirst();
 
@@ -409,8 +435,5 @@ public class bugreportGUI {
 			ItemStack categoryItem = createInfoItem(Material.CHEST, ChatColor.GOLD + "Category Name", ChatColor.WHITE + "None", false);
 			gui.setItem(18, categoryItem);
 		}
-
-		player.openInventory(gui);
-		Bukkit.getPluginManager().registerEvents(new BugReportManager.BugReportDetailsListener(gui, reportIDGUI), plugin);
 	}
 }
\ No newline at end of file
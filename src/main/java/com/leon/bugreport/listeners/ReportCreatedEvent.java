@@ -1,19 +1,24 @@
 package com.leon.bugreport.listeners;
 
+import com.leon.bugreport.BugReport;
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
 import org.jetbrains.annotations.NotNull;
 
 public class ReportCreatedEvent extends Event {
 	private static final HandlerList HANDLERS = new HandlerList();
-	private final String reportDetails;
+	private final BugReport report;
 
-	public ReportCreatedEvent(String reportDetails) {
-		this.reportDetails = reportDetails;
+	public ReportCreatedEvent(@NotNull BugReport report) {
+		this.report = report;
+	}
+
+	public @NotNull BugReport getReport() {
+		return report;
 	}
 
 	public String getReportDetails() {
-		return reportDetails;
+		return report.toHeader();
 	}
 
 	@Override
@@ -1,8 +1,8 @@
 package com.leon.bugreport.listeners;
 
 import com.leon.bugreport.BugReportManager;
+import com.leon.bugreport.gui.GUIHolder;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -12,7 +12,7 @@ public class ReportListener implements Listener {
 	@EventHandler
 	public void onReportCreated(ReportCreatedEvent event) {
 		for (Player player : Bukkit.getOnlinePlayers()) {
-			if (player.getOpenInventory().getTitle().startsWith(ChatColor.YELLOW + "Bug Report")) {
+			if (player.getOpenInventory().getTopInventory().getHolder() instanceof GUIHolder holder && holder.getType() == GUIHolder.Type.REPORT_LIST) {
 				Inventory newGui = BugReportManager.generateBugReportGUI(player, false);
 				player.openInventory(newGui);
 			}
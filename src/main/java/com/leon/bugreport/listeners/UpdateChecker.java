@@ -1,12 +1,10 @@
 package com.leon.bugreport.listeners;
 
+import com.leon.bugreport.API.HttpService;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URL;
-import java.util.Scanner;
 import java.util.function.Consumer;
 
 public class UpdateChecker {
@@ -20,11 +18,11 @@ public class UpdateChecker {
 
 	public void getVersion(final Consumer<String> consumer) {
 		Bukkit.getScheduler().runTaskAsynchronously(this.plugin, () -> {
-			try (InputStream is = new URL("https://api.spigotmc.org/legacy/update.php?resource=" + this.resourceId + "/~").openStream()) {
-				try (Scanner scann = new Scanner(is)) {
-					if (scann.hasNext()) {
-						consumer.accept(scann.next());
-					}
+			try {
+				HttpService.Response response = HttpService.get("https://api.spigotmc.org/legacy/update.php?resource=" + this.resourceId + "/~", HttpService.DEFAULT_REQUEST_TIMEOUT);
+				String version = response.bodyString().trim();
+				if (response.isSuccess() && !version.isEmpty()) {
+					consumer.accept(version);
 				}
 			} catch (IOException e) {
 				plugin.getLogger().info("Unable to check for updates: " + e.getMessage());
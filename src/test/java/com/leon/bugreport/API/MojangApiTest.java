@@ -0,0 +1,136 @@
+package com.leon.bugreport.API;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MojangApiTest {
+	private static final String PROFILE = "{\"id\":\"069a79f444e94726a5befca90e38aaf5\",\"name\":\"Notch\"}";
+	private static final UUID PROFILE_UUID = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+	private static final long NEGATIVE_CACHE_MILLIS = 60 * 60 * 1000;
+
+	private final AtomicLong clock = new AtomicLong(1_000_000);
+	private final AtomicInteger status = new AtomicInteger(200);
+	private final AtomicInteger requests = new AtomicInteger();
+	private HttpServer server;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			requests.incrementAndGet();
+			int code = status.get();
+			if (code == 200) {
+				byte[] body = PROFILE.getBytes(StandardCharsets.UTF_8);
+				exchange.sendResponseHeaders(code, body.length);
+				try (OutputStream stream = exchange.getResponseBody()) {
+					stream.write(body);
+				}
+			} else {
+				exchange.sendResponseHeaders(code, -1);
+			}
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	private MojangApi createApi(int bucketCapacity, int failureThreshold, long openDurationMillis) {
+		MojangApiGuard guard = new MojangApiGuard(clock::get, bucketCapacity, 1000, failureThreshold, openDurationMillis);
+		String baseURL = "http://127.0.0.1:" + server.getAddress().getPort();
+		return new MojangApi(baseURL + "/profiles/", baseURL + "/session/", guard, clock::get, NEGATIVE_CACHE_MILLIS);
+	}
+
+	@Test
+	void tokenBucketRejectsBurstsAndRefills() throws IOException {
+		MojangApi api = createApi(2, 5, 60_000);
+
+		assertEquals(PROFILE_UUID, api.fetchUUID("Notch"));
+		assertEquals(PROFILE_UUID, api.fetchUUID("Notch"));
+		assertThrows(MojangApiGuard.RequestRejectedException.class, () -> api.fetchUUID("Notch"));
+		assertEquals(2, requests.get());
+
+		clock.addAndGet(500);
+		assertThrows(MojangApiGuard.RequestRejectedException.class, () -> api.fetchUUID("Notch"));
+
+		clock.addAndGet(500);
+		assertEquals(PROFILE_UUID, api.fetchUUID("Notch"));
+		assertEquals(3, requests.get());
+		assertEquals(3, api.getGuard().drainRequestCount());
+		assertEquals(2, api.getGuard().drainRejectedCount());
+	}
+
+	@Test
+	void breakerOpensAndClosesAfterSuccessfulTrial() throws IOException {
+		MojangApi api = createApi(10, 2, 60_000);
+		status.set(500);
+
+		assertThrows(IOException.class, () -> api.fetchUUID("Notch"));
+		assertEquals(MojangApiGuard.State.CLOSED, api.getGuard().getState());
+		assertThrows(IOException.class, () -> api.fetchUUID("Notch"));
+		assertEquals(MojangApiGuard.State.OPEN, api.getGuard().getState());
+
+		assertThrows(MojangApiGuard.RequestRejectedException.class, () -> api.fetchUUID("Notch"));
+		assertEquals(2, requests.get());
+
+		clock.addAndGet(60_000);
+		assertEquals(MojangApiGuard.State.HALF_OPEN, api.getGuard().getState());
+
+		status.set(200);
+		assertEquals(PROFILE_UUID, api.fetchUUID("Notch"));
+		assertEquals(MojangApiGuard.State.CLOSED, api.getGuard().getState());
+		assertEquals(3, requests.get());
+		assertEquals(2, api.getGuard().drainFailureCount());
+	}
+
+	@Test
+	void breakerReopensAfterFailedTrial() {
+		MojangApi api = createApi(10, 2, 60_000);
+		status.set(503);
+
+		assertThrows(IOException.class, () -> api.fetchUUID("Notch"));
+		assertThrows(IOException.class, () -> api.fetchUUID("Notch"));
+		clock.addAndGet(60_000);
+		assertEquals(MojangApiGuard.State.HALF_OPEN, api.getGuard().getState());
+
+		assertThrows(IOException.class, () -> api.fetchUUID("Notch"));
+		assertEquals(MojangApiGuard.State.OPEN, api.getGuard().getState());
+		assertThrows(MojangApiGuard.RequestRejectedException.class, () -> api.fetchUUID("Notch"));
+		assertEquals(3, requests.get());
+	}
+
+	@Test
+	void unknownPlayersAreNotFailuresAndExpireFromNegativeCache() throws IOException {
+		MojangApi api = createApi(10, 1, 60_000);
+		status.set(204);
+
+		assertThrows(MojangApi.UnknownPlayerException.class, () -> api.fetchUUID("Nobody"));
+		assertEquals(MojangApiGuard.State.CLOSED, api.getGuard().getState());
+		assertTrue(api.isUnknown("Nobody"));
+
+		clock.addAndGet(NEGATIVE_CACHE_MILLIS - 1);
+		assertThrows(MojangApi.UnknownPlayerException.class, () -> api.fetchUUID("Nobody"));
+		assertEquals(1, requests.get());
+
+		clock.addAndGet(1);
+		assertFalse(api.isUnknown("Nobody"));
+		status.set(200);
+		assertEquals(PROFILE_UUID, api.fetchUUID("Nobody"));
+		assertEquals(2, requests.get());
+	}
+}